@@ -52,6 +52,32 @@ is_service_ready() {
   return 1 # Failure
 }
 
+#
+# Checks that a deployed service answers its readiness endpoint, /admin/health/ready.
+# "Ready" from akka service list only means the service is deployed; this waits until
+# it reports itself able to serve (e.g. views caught up, delivery backlog under its limit).
+#
+# @param {string} url The base URL of the exposed service.
+# @param {number} [max_attempts=60] Optional: The maximum number of times to check.
+# @returns {0} for success, {1} for failure (timeout).
+#
+is_app_ready() {
+  local url="$1"
+  local max_attempts="${2:-60}"
+
+  for (( i=1; i<=max_attempts; i++ )); do
+    if curl -sf -o /dev/null "${url}/admin/health/ready"; then
+      echo "✅ ${url} reports ready."
+      return 0
+    fi
+    echo "  Attempt $i/$max_attempts: ${url} is not ready yet. Retrying in 1s..."
+    sleep 1
+  done
+
+  echo "❌ ${url} did not report ready after $max_attempts attempts."
+  return 1
+}
+
 if is_service_ready "central" 200; then
 
   echo "Proceeding with deployment..."
@@ -82,6 +108,7 @@ if is_service_ready "central" 200; then
   echo "$routes" | awk 'NR > 1 {print $2}' | while read -r hostname; do
     if [ -n "$hostname" ]; then
       url="https://${hostname}"
+      is_app_ready "$url"
       echo "🚀 Opening: ${url}"
       open "$url"
     fi
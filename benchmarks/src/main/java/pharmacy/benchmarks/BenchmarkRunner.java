@@ -0,0 +1,28 @@
+package pharmacy.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler always on, so every result carries its allocation rate
+ * (gc.alloc.rate.norm, bytes per operation) next to the timing. Takes the usual JMH arguments,
+ * e.g. a benchmark name regex or -rf json -rff results.json.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        var options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        try {
+            new Runner(options).run();
+        } catch (RunnerException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package pharmacy.benchmarks;
+
+import java.util.Optional;
+import pharmacy.domain.PatientRecord;
+
+/**
+ * Records shaped like those a store delivers, with every optional field filled in so that the
+ * Optional handling is part of what gets measured.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static PatientRecord patientRecord() {
+        return new PatientRecord(
+            "101",
+            "5f0c7a3e-2b1d-4c59-9a3e-0d6b8f1e2a47",
+            "Alicia",
+            "Summers",
+            Optional.of("Ali"),
+            "1984-03-17",
+            "604-555-0142",
+            "9876 543 210",
+            Optional.of("1204"),
+            "1550",
+            "West Georgia Street",
+            "Vancouver",
+            "BC",
+            "V6G 2V3",
+            "Canada",
+            "en",
+            true
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package pharmacy.benchmarks;
+
+import akka.javasdk.JsonSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.domain.PatientRecordEvent.PatientAddressChanged;
+import pharmacy.domain.PatientRecordEvent.PatientRecordCreated;
+
+/**
+ * Encoding and decoding of what a store writes for every patient change: the journalled event and
+ * the record sent to central. Uses the SDK's own ObjectMapper, so Optional handling matches
+ * production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectMapper mapper;
+    private StorePatientRecord storePatientRecord;
+    private PatientRecordCreated created;
+    private PatientAddressChanged addressChanged;
+    private byte[] storePatientRecordJson;
+    private byte[] createdJson;
+    private byte[] addressChangedJson;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = JsonSupport.getObjectMapper();
+        var record = Fixtures.patientRecord();
+        storePatientRecord = StorePatientRecord.fromPatientRecord(record);
+        created = new PatientRecordCreated(record);
+        addressChanged = new PatientAddressChanged(
+            record.unitNumber(),
+            record.streetNumber(),
+            record.streetName(),
+            record.city(),
+            record.province(),
+            record.postalCode(),
+            record.country()
+        );
+        storePatientRecordJson = mapper.writeValueAsBytes(storePatientRecord);
+        createdJson = mapper.writeValueAsBytes(created);
+        addressChangedJson = mapper.writeValueAsBytes(addressChanged);
+    }
+
+    @Benchmark
+    public byte[] encodeStorePatientRecord() throws IOException {
+        return mapper.writeValueAsBytes(storePatientRecord);
+    }
+
+    @Benchmark
+    public StorePatientRecord decodeStorePatientRecord() throws IOException {
+        return mapper.readValue(storePatientRecordJson, StorePatientRecord.class);
+    }
+
+    @Benchmark
+    public byte[] encodePatientRecordCreated() throws IOException {
+        return mapper.writeValueAsBytes(created);
+    }
+
+    @Benchmark
+    public PatientRecordCreated decodePatientRecordCreated() throws IOException {
+        return mapper.readValue(createdJson, PatientRecordCreated.class);
+    }
+
+    @Benchmark
+    public byte[] encodePatientAddressChanged() throws IOException {
+        return mapper.writeValueAsBytes(addressChanged);
+    }
+
+    @Benchmark
+    public PatientAddressChanged decodePatientAddressChanged() throws IOException {
+        return mapper.readValue(addressChangedJson, PatientAddressChanged.class);
+    }
+}
@@ -0,0 +1,55 @@
+package pharmacy.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.central.delivery.UpdateIdUtility;
+import pharmacy.domain.PatientRecord;
+
+/**
+ * The per-delivery work that doesn't involve I/O: mapping between the store and central record
+ * types and building the id a delivery is tracked under.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private PatientRecord patientRecord;
+    private StorePatientRecord storePatientRecord;
+    private long sequenceNumber;
+
+    @Setup
+    public void setup() {
+        patientRecord = Fixtures.patientRecord();
+        storePatientRecord = StorePatientRecord.fromPatientRecord(patientRecord);
+    }
+
+    @Benchmark
+    public StorePatientRecord fromPatientRecord() {
+        return StorePatientRecord.fromPatientRecord(patientRecord);
+    }
+
+    @Benchmark
+    public PatientRecord toPatientRecord() {
+        return storePatientRecord.toPatientRecord();
+    }
+
+    @Benchmark
+    public String updateId() {
+        // the sequence number arrives as a string in the event metadata
+        return UpdateIdUtility.getUpdateId(patientRecord.patientId(), Long.toString(++sequenceNumber));
+    }
+}
@@ -0,0 +1,245 @@
+package pharmacy.benchmarks.load;
+
+import akka.javasdk.JsonSupport;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.central.client.domain.StorePatientSearchCriteria;
+import pharmacy.benchmarks.load.LoadSettings.Operation;
+
+/**
+ * Drives central's patient record endpoints as many stores at once, to find where central
+ * saturates. Each virtual store runs on its own virtual thread and issues a weighted mix of
+ * creates, updates, deletes and searches at a fixed rate against its own patients.
+ * <p>
+ * Operations are scheduled on a fixed timetable and latency is measured from when an operation was
+ * due, not from when it was sent. A central that falls behind therefore shows up in the latencies
+ * instead of silently lowering the request rate. Each endpoint gets a latency histogram. A summary
+ * is printed, and the full distributions are written to target/load/{endpoint}.hgrm.
+ * <p>
+ * Settings are system properties, see {@link LoadSettings}:
+ * <pre>
+ * java -Dload.stores=500 -Dload.ops-per-store-per-second=4 -Dload.duration-seconds=120 \
+ *     -cp target/benchmarks.jar pharmacy.benchmarks.load.CentralLoadSimulator
+ * </pre>
+ */
+public class CentralLoadSimulator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final LoadSettings settings;
+    private final HttpClient http;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+
+    CentralLoadSimulator(LoadSettings settings) {
+        this.settings = settings;
+        this.http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        for (var operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var settings = LoadSettings.fromSystemProperties();
+        new CentralLoadSimulator(settings).run(System.out);
+    }
+
+    void run(PrintStream out) throws Exception {
+        out.printf(
+            "Simulating %d stores at %.1f ops/s each against %s for %s (after %s warmup)%n",
+            settings.stores(),
+            settings.opsPerStorePerSecond(),
+            settings.centralUrl(),
+            settings.duration(),
+            settings.warmup()
+        );
+        for (int n = 0; n < settings.stores(); n++) registerPharmacy(pharmacyId(n));
+
+        var end = System.nanoTime() + settings.warmup().plus(settings.duration()).toNanos();
+        try (var stores = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int n = 0; n < settings.stores(); n++) {
+                var pharmacyId = pharmacyId(n);
+                stores.submit(() -> runStore(pharmacyId, end));
+            }
+            TimeUnit.NANOSECONDS.sleep(settings.warmup().toNanos());
+            recording = true;
+        }
+        report(out);
+    }
+
+    private String pharmacyId(int n) {
+        return Integer.toString(settings.pharmacyIdOffset() + n);
+    }
+
+    private void runStore(String pharmacyId, long end) {
+        var random = ThreadLocalRandom.current();
+        var interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.opsPerStorePerSecond());
+        // spread the stores out so they don't all fire on the same tick
+        var due = System.nanoTime() + random.nextLong(interval);
+        List<StorePatientRecord> patients = new ArrayList<>();
+        while (due < end) {
+            var wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            var operation = settings.pick(random.nextInt(settings.totalWeight()));
+            if (patients.isEmpty() && operation != Operation.SEARCH) operation = Operation.CREATE;
+            var ok = switch (operation) {
+                case CREATE -> create(pharmacyId, patients);
+                case UPDATE -> update(patients.get(random.nextInt(patients.size())));
+                case DELETE -> delete(patients.remove(random.nextInt(patients.size())));
+                case SEARCH -> search(patients);
+            };
+            if (recording) {
+                latencies.get(operation).recordValue(Math.min(System.nanoTime() - due, HIGHEST_TRACKABLE_NANOS));
+                if (!ok) errors.get(operation).incrementAndGet();
+            }
+            due += interval;
+        }
+    }
+
+    private boolean create(String pharmacyId, List<StorePatientRecord> patients) {
+        var record = patient(pharmacyId, UUID.randomUUID().toString(), "Load");
+        var ok = send("PUT", "/patients/patient", record);
+        if (ok) patients.add(record);
+        return ok;
+    }
+
+    private boolean update(StorePatientRecord record) {
+        var name = record.firstName().equals("Load") ? "Loaded" : "Load";
+        return send("POST", "/patients/patient", patient(record.pharmacyId(), record.patientId(), name));
+    }
+
+    private boolean delete(StorePatientRecord record) {
+        return send("DELETE", "/patients/" + record.pharmacyId() + "-" + record.patientId(), null);
+    }
+
+    private boolean search(List<StorePatientRecord> patients) {
+        var criteria = patients.isEmpty()
+            ? StorePatientSearchCriteria.byName("Load", "Patient")
+            : new StorePatientSearchCriteria(
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(patients.getLast().provHealthNumber())
+            );
+        return send("POST", "/patients/search", criteria);
+    }
+
+    private void registerPharmacy(String pharmacyId) throws IOException, InterruptedException {
+        var pharmacy = Map.of(
+            "pharmacyId", pharmacyId,
+            "streetAddress", "1 Load Street",
+            "city", "Vancouver",
+            "province", "BC",
+            "postalCode", "V5K 0A1",
+            "phoneNumber", "604-555-0000",
+            "version", "1"
+        );
+        var response = http.send(request("PUT", "/pharmacies/pharmacy", pharmacy), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300 && response.statusCode() != 400) {
+            throw new IllegalStateException("Could not register pharmacy " + pharmacyId + ": " + response.statusCode());
+        }
+    }
+
+    private boolean send(String method, String path, Object body) {
+        try {
+            var response = http.send(request(method, path, body), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest request(String method, String path, Object body) throws IOException {
+        var publisher = body == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(JsonSupport.getObjectMapper().writeValueAsBytes(body));
+        return HttpRequest.newBuilder(URI.create(settings.centralUrl() + path))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(30))
+            .method(method, publisher)
+            .build();
+    }
+
+    private static StorePatientRecord patient(String pharmacyId, String patientId, String firstName) {
+        var healthNumber = "9" + "%09d".formatted(Math.floorMod(patientId.hashCode(), 1_000_000_000));
+        return new StorePatientRecord(
+            pharmacyId,
+            patientId,
+            firstName,
+            "Patient",
+            Optional.empty(),
+            "1980-01-01",
+            "604-555-0000",
+            healthNumber,
+            Optional.empty(),
+            "100",
+            "Main Street",
+            "Vancouver",
+            "BC",
+            "V5K 0A1",
+            "Canada",
+            "en",
+            false
+        );
+    }
+
+    private void report(PrintStream out) throws IOException {
+        var seconds = settings.duration().toSeconds();
+        var dir = Path.of("target", "load");
+        Files.createDirectories(dir);
+        out.printf("%-24s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+            "endpoint", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (var operation : Operation.values()) {
+            var histogram = latencies.get(operation);
+            out.printf("%-24s %9d %8d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                operation.endpoint,
+                histogram.getTotalCount(),
+                errors.get(operation).get(),
+                histogram.getTotalCount() / (double) seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+            try (var file = new PrintStream(dir.resolve(operation.name().toLowerCase() + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(file, 1e6);
+            }
+        }
+        out.println("Full distributions (in ms) written to " + dir.toAbsolutePath());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
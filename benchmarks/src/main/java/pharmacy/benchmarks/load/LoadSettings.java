@@ -0,0 +1,62 @@
+package pharmacy.benchmarks.load;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link CentralLoadSimulator}, read from system properties.
+ *
+ * @param opsPerStorePerSecond operations each virtual store issues per second
+ * @param pharmacyIdOffset virtual store n uses pharmacy id offset + n, away from real stores' ids
+ */
+record LoadSettings(
+    String centralUrl,
+    int stores,
+    double opsPerStorePerSecond,
+    Duration duration,
+    Duration warmup,
+    int pharmacyIdOffset,
+    int createWeight,
+    int updateWeight,
+    int deleteWeight,
+    int searchWeight
+) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+            System.getProperty("load.central-url", "http://127.0.0.1:9001"),
+            Integer.getInteger("load.stores", 200),
+            Double.parseDouble(System.getProperty("load.ops-per-store-per-second", "2")),
+            Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 60)),
+            Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 10)),
+            Integer.getInteger("load.pharmacy-id-offset", 9000),
+            Integer.getInteger("load.mix.create", 40),
+            Integer.getInteger("load.mix.update", 35),
+            Integer.getInteger("load.mix.delete", 5),
+            Integer.getInteger("load.mix.search", 20)
+        );
+    }
+
+    Operation pick(int roll) {
+        if ((roll -= createWeight) < 0) return Operation.CREATE;
+        if ((roll -= updateWeight) < 0) return Operation.UPDATE;
+        if ((roll -= deleteWeight) < 0) return Operation.DELETE;
+        return Operation.SEARCH;
+    }
+
+    int totalWeight() {
+        return createWeight + updateWeight + deleteWeight + searchWeight;
+    }
+
+    enum Operation {
+        CREATE("PUT /patients/patient"),
+        UPDATE("POST /patients/patient"),
+        DELETE("DELETE /patients/{id}"),
+        SEARCH("POST /patients/search");
+
+        final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
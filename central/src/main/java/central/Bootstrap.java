@@ -0,0 +1,89 @@
+package central;
+
+import akka.javasdk.DependencyProvider;
+import akka.javasdk.ServiceSetup;
+import akka.javasdk.annotations.Setup;
+import akka.javasdk.client.ComponentClient;
+import central.patient.domain.KeyHasher;
+import central.pharmacy.application.PharmacyRegistry;
+import central.pharmacy.application.PharmacySeeder;
+import central.pharmacy.application.PharmacyView;
+import com.typesafe.config.Config;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Setup
+public class Bootstrap implements ServiceSetup {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bootstrap.class);
+
+    private final Config config;
+    private final ComponentClient componentClient;
+    private final PharmacyRegistry pharmacyRegistry;
+    private final KeyHasher keyHasher;
+
+    public Bootstrap(Config config, ComponentClient componentClient) {
+        this.config = config;
+        this.componentClient = componentClient;
+        this.pharmacyRegistry = new PharmacyRegistry(
+            () -> componentClient.forView().method(PharmacyView::getAll).invoke().pharmacies(),
+            config.getDuration("central.pharmacy-registry.ttl"),
+            config.getDuration("central.pharmacy-registry.unknown-ttl")
+        );
+        this.keyHasher = new KeyHasher(config.getString("central.key-hashing.salt"));
+    }
+
+    @Override
+    public void onStartup() {
+        if (config.getBoolean("central.pharmacy-seed.enabled")) {
+            seedPharmacies();
+        }
+    }
+
+    private void seedPharmacies() {
+        var file = Path.of(config.getString("central.pharmacy-seed.file"));
+        if (!Files.exists(file)) {
+            logger.info("No stores file at {}, skipping pharmacy seeding", file.toAbsolutePath());
+            return;
+        }
+        PharmacySeeder.StoresFile stores;
+        try {
+            stores = PharmacySeeder.read(file);
+        } catch (IOException e) {
+            logger.error("Could not read stores file {}", file.toAbsolutePath(), e);
+            return;
+        }
+        var started = System.nanoTime();
+        new PharmacySeeder(componentClient, config.getInt("central.pharmacy-seed.parallelism"))
+            .seed(stores.stores())
+            .thenAccept(result ->
+                logger.info(
+                    "Seeded pharmacies from {} in {} ms: {}",
+                    file,
+                    Duration.ofNanos(System.nanoTime() - started).toMillis(),
+                    result
+                )
+            );
+    }
+
+    @Override
+    public DependencyProvider createDependencyProvider() {
+        return new DependencyProvider() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> T getDependency(Class<T> clazz) {
+                if (clazz == PharmacyRegistry.class) {
+                    return (T) pharmacyRegistry;
+                }
+                if (clazz == KeyHasher.class) {
+                    return (T) keyHasher;
+                }
+                return null;
+            }
+        };
+    }
+}
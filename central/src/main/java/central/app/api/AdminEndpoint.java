@@ -0,0 +1,81 @@
+package central.app.api;
+
+import akka.http.javadsl.model.ContentTypes;
+import akka.http.javadsl.model.HttpEntities;
+import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCodes;
+import akka.javasdk.JsonSupport;
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.http.HttpResponses;
+import shared.metrics.MetricsRegistry;
+import shared.metrics.ViewLag;
+import com.typesafe.config.Config;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Operational endpoints, not used by the UI.
+ */
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
+@HttpEndpoint("/admin")
+public class AdminEndpoint {
+
+    public record Readiness(boolean ready, long viewLagSeconds, long maxViewLagSeconds) {}
+
+    private final Duration maxViewLag;
+    private final Duration viewIdleAfter;
+
+    public AdminEndpoint(Config config) {
+        this.maxViewLag = config.getDuration("central.health.max-view-lag");
+        this.viewIdleAfter = config.getDuration("central.health.view-idle-after");
+    }
+
+    @Get("/metrics")
+    public HttpResponse metrics() {
+        return HttpResponse.create()
+            .withStatus(StatusCodes.OK)
+            .withEntity(
+                HttpEntities.create(
+                    ContentTypes.TEXT_PLAIN_UTF8,
+                    MetricsRegistry.global().scrape()
+                )
+            );
+    }
+
+    /**
+     * Lag, update rate and last catch-up (e.g. a full rebuild) of each view, see {@link ViewLag}.
+     * Views that haven't applied an event since the service started are not listed.
+     */
+    @Get("/views")
+    public List<ViewLag.ViewStatus> views() {
+        return ViewLag.global().status(viewIdleAfter);
+    }
+
+    /**
+     * Liveness: the service is up and serving requests.
+     */
+    @Get("/health/live")
+    public HttpResponse live() {
+        return HttpResponses.ok();
+    }
+
+    /**
+     * Readiness, answered with 503 while the patient search view is more than central.health.max-view-lag
+     * behind the records the stores have sent, since searches would then miss recent changes.
+     */
+    @Get("/health/ready")
+    public HttpResponse ready() {
+        var lag = ViewLag.global().lag("store-patient-record-view", viewIdleAfter);
+        var readiness = new Readiness(lag.compareTo(maxViewLag) <= 0, lag.toSeconds(), maxViewLag.toSeconds());
+        return HttpResponse.create()
+            .withStatus(readiness.ready() ? StatusCodes.OK : StatusCodes.SERVICE_UNAVAILABLE)
+            .withEntity(
+                HttpEntities.create(
+                    ContentTypes.APPLICATION_JSON,
+                    JsonSupport.encodeToAkkaByteString(readiness)
+                )
+            );
+    }
+}
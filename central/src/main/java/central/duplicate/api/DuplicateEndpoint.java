@@ -0,0 +1,57 @@
+package central.duplicate.api;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import central.duplicate.application.DuplicateCandidatesEntity;
+import central.duplicate.application.DuplicateCandidatesView;
+import central.duplicate.domain.DuplicateCandidates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.ALL))
+@HttpEndpoint("/duplicates")
+public class DuplicateEndpoint extends AbstractHttpEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final ComponentClient componentClient;
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateEndpoint.class);
+
+    public DuplicateEndpoint(ComponentClient componentClient) {
+        this.componentClient = componentClient;
+    }
+
+    /**
+     * Records with at least one candidate, most candidates first. Takes an optional ?limit= parameter.
+     */
+    @Get
+    public DuplicateCandidatesView.DuplicateCandidatesList list() {
+        var limit = requestContext().queryParams().getInteger("limit").orElse(DEFAULT_LIMIT);
+        return componentClient
+                .forView()
+                .method(DuplicateCandidatesView::getWithCandidates)
+                .invoke(new DuplicateCandidatesView.PageRequest(limit));
+    }
+
+    @Get("/count")
+    public DuplicateCandidatesView.Count count() {
+        return componentClient
+                .forView()
+                .method(DuplicateCandidatesView::countWithCandidates)
+                .invoke();
+    }
+
+    @Get("/{store_patient_id}")
+    public DuplicateCandidates get(String store_patient_id) {
+        logger.info("Get duplicate candidates for id={}", store_patient_id);
+        return componentClient
+                .forKeyValueEntity(store_patient_id)
+                .method(DuplicateCandidatesEntity::get)
+                .invoke();
+    }
+
+}
@@ -0,0 +1,65 @@
+package central.duplicate.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import akka.javasdk.keyvalueentity.KeyValueEntityContext;
+import central.duplicate.domain.DuplicateCandidates;
+import java.util.List;
+
+/**
+ * The candidate-match index entry of one store patient record, keyed by its id.
+ */
+@ComponentId("duplicate-candidates")
+public class DuplicateCandidatesEntity extends KeyValueEntity<DuplicateCandidates> {
+
+    private final String entityId;
+
+    public record FileRequest(List<String> blockingKeys, List<DuplicateCandidates.Candidate> candidates) {}
+
+    public record CandidateRequest(String storePatientRecordId, double score) {}
+
+    public DuplicateCandidatesEntity(KeyValueEntityContext context) {
+        this.entityId = context.entityId();
+    }
+
+    @Override
+    public DuplicateCandidates emptyState() {
+        return DuplicateCandidates.empty(entityId);
+    }
+
+    public ReadOnlyEffect<DuplicateCandidates> get() {
+        return effects().reply(currentState());
+    }
+
+    /**
+     * Replaces keys and candidates after the record has been (re)compared.
+     */
+    public Effect<Done> file(FileRequest request) {
+        return effects()
+                .updateState(currentState()
+                        .withKeys(request.blockingKeys())
+                        .withCandidates(request.candidates()))
+                .thenReply(Done.getInstance());
+    }
+
+    /**
+     * Links back from a candidate, so that matches are visible from both records.
+     */
+    public Effect<Done> addCandidate(CandidateRequest request) {
+        return effects()
+                .updateState(currentState().withCandidate(request.storePatientRecordId(), request.score()))
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<Done> removeCandidate(String storePatientRecordId) {
+        return effects()
+                .updateState(currentState().withoutCandidate(storePatientRecordId))
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<Done> remove() {
+        return effects().deleteEntity().thenReply(Done.getInstance());
+    }
+
+}
@@ -0,0 +1,57 @@
+package central.duplicate.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.DeleteHandler;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import central.duplicate.domain.DuplicateCandidates;
+import java.util.List;
+
+@ComponentId("duplicate-candidates-view")
+public class DuplicateCandidatesView extends View {
+
+    public record DuplicateCandidatesList(List<DuplicateCandidates> records) {}
+
+    public record PageRequest(int limit) {}
+
+    public record Count(long amount) {}
+
+    @Query(
+        """
+        SELECT * AS records FROM duplicateCandidates
+        WHERE candidateCount > 0
+        ORDER BY candidateCount DESC
+        LIMIT :limit
+        """
+    )
+    public QueryEffect<DuplicateCandidatesList> getWithCandidates(PageRequest request) {
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT COUNT(*) as amount FROM duplicateCandidates
+        WHERE candidateCount > 0
+        """
+    )
+    public QueryEffect<Count> countWithCandidates() {
+        return queryResult();
+    }
+
+    @Table("duplicateCandidates")
+    @Consume.FromKeyValueEntity(DuplicateCandidatesEntity.class)
+    public static class DuplicateCandidatesUpdater extends TableUpdater<DuplicateCandidates> {
+
+        public Effect<DuplicateCandidates> onUpdate(DuplicateCandidates candidates) {
+            return effects().updateRow(candidates);
+        }
+
+        @DeleteHandler
+        public Effect<DuplicateCandidates> onDelete() {
+            return effects().deleteRow();
+        }
+    }
+}
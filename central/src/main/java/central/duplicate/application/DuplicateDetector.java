@@ -0,0 +1,145 @@
+package central.duplicate.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import central.duplicate.domain.DuplicateCandidates;
+import central.duplicate.domain.PatientFingerprint;
+import central.patient.application.StorePatientRecordEntity;
+import central.patient.domain.KeyHasher;
+import central.patient.domain.StorePatientRecord;
+import central.patient.domain.StorePatientRecordEvent;
+import com.typesafe.config.Config;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds likely cross-store duplicates as store patient records arrive.
+ * <p>
+ * Each record is filed under a few blocking keys (health number, name and date of birth, phone) and is
+ * only compared with the other members of those blocks, so the cost of a change depends on block size
+ * rather than on the number of records at central. Only pairs from different pharmacies scoring at least
+ * central.duplicates.threshold are kept, and they are kept on both records.
+ * <p>
+ * Blocking keys are built from patient identifiers, so blocks are keyed by their {@link KeyHasher} hash
+ * and neither the keys nor the hashes are logged.
+ */
+@ComponentId("duplicate-detector")
+@Consume.FromEventSourcedEntity(value = StorePatientRecordEntity.class, ignoreUnknown = true)
+public class DuplicateDetector extends Consumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetector.class);
+
+    private final ComponentClient componentClient;
+    private final KeyHasher keyHasher;
+    private final double threshold;
+    private final int maxBlockSize;
+
+    public DuplicateDetector(ComponentClient componentClient, KeyHasher keyHasher, Config config) {
+        this.componentClient = componentClient;
+        this.keyHasher = keyHasher;
+        this.threshold = config.getDouble("central.duplicates.threshold");
+        this.maxBlockSize = config.getInt("central.duplicates.max-block-size");
+    }
+
+    public Effect onCreated(StorePatientRecordEvent.StorePatientRecordCreated event) {
+        return detect(event.patientRecord());
+    }
+
+    public Effect onUpdated(StorePatientRecordEvent.StorePatientRecordUpdated event) {
+        return detect(event.patientRecord());
+    }
+
+    public Effect onDeleted(StorePatientRecordEvent.StorePatientRecordDeleted event) {
+        var id = messageContext().eventSubject().get();
+        var previous = candidatesOf(id);
+        previous.blockingKeys().forEach(key -> leave(key, id));
+        previous.candidates().forEach(c -> unlink(c.storePatientRecordId(), id));
+        componentClient
+                .forKeyValueEntity(id)
+                .method(DuplicateCandidatesEntity::remove)
+                .invoke();
+        return effects().done();
+    }
+
+    private Effect detect(StorePatientRecord record) {
+        var fingerprint = PatientFingerprint.of(record);
+        var id = fingerprint.storePatientRecordId();
+        var keys = fingerprint.blockingKeys().stream().map(keyHasher::hash).toList();
+        var previous = candidatesOf(id);
+
+        previous.blockingKeys().stream()
+                .filter(key -> !keys.contains(key))
+                .forEach(key -> leave(key, id));
+
+        // A pair usually shares several blocks, keep the first score seen for each other record.
+        var scores = new HashMap<String, Double>();
+        for (var key : keys) {
+            var others = componentClient
+                    .forKeyValueEntity(key)
+                    .method(PatientBlockEntity::join)
+                    .invoke(new PatientBlockEntity.JoinRequest(fingerprint, maxBlockSize));
+            for (var other : others) {
+                if (other.pharmacyId().equals(fingerprint.pharmacyId())) continue;
+                if (scores.containsKey(other.storePatientRecordId())) continue;
+                var score = fingerprint.matchScore(other);
+                if (score >= threshold) scores.put(other.storePatientRecordId(), score);
+            }
+        }
+
+        var candidates = toCandidates(scores);
+        componentClient
+                .forKeyValueEntity(id)
+                .method(DuplicateCandidatesEntity::file)
+                .invoke(new DuplicateCandidatesEntity.FileRequest(keys, candidates));
+
+        candidates.forEach(c -> componentClient
+                .forKeyValueEntity(c.storePatientRecordId())
+                .method(DuplicateCandidatesEntity::addCandidate)
+                .invoke(new DuplicateCandidatesEntity.CandidateRequest(id, c.score())));
+
+        var current = new HashSet<>(scores.keySet());
+        previous.candidates().stream()
+                .map(DuplicateCandidates.Candidate::storePatientRecordId)
+                .filter(otherId -> !current.contains(otherId))
+                .forEach(otherId -> unlink(otherId, id));
+
+        if (!candidates.isEmpty())
+            logger.info("Record {} has {} duplicate candidate(s)", id, candidates.size());
+        return effects().done();
+    }
+
+    private DuplicateCandidates candidatesOf(String id) {
+        return componentClient
+                .forKeyValueEntity(id)
+                .method(DuplicateCandidatesEntity::get)
+                .invoke();
+    }
+
+    private void leave(String key, String id) {
+        componentClient
+                .forKeyValueEntity(key)
+                .method(PatientBlockEntity::leave)
+                .invoke(id);
+    }
+
+    private void unlink(String otherId, String id) {
+        componentClient
+                .forKeyValueEntity(otherId)
+                .method(DuplicateCandidatesEntity::removeCandidate)
+                .invoke(id);
+    }
+
+    private static List<DuplicateCandidates.Candidate> toCandidates(Map<String, Double> scores) {
+        var candidates = new ArrayList<DuplicateCandidates.Candidate>();
+        scores.forEach((otherId, score) -> candidates.add(new DuplicateCandidates.Candidate(otherId, score)));
+        return candidates;
+    }
+
+}
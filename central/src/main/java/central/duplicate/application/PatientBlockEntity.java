@@ -0,0 +1,58 @@
+package central.duplicate.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import central.duplicate.domain.PatientBlock;
+import central.duplicate.domain.PatientFingerprint;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The members of one block, keyed by the hashed blocking key (see {@link PatientFingerprint#blockingKeys()}
+ * and {@link central.patient.domain.KeyHasher}). The key is derived from patient identifiers, so it is
+ * never logged.
+ */
+@ComponentId("patient-block")
+public class PatientBlockEntity extends KeyValueEntity<PatientBlock> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientBlockEntity.class);
+
+    public record JoinRequest(PatientFingerprint member, int maxSize) {}
+
+    @Override
+    public PatientBlock emptyState() {
+        return PatientBlock.empty();
+    }
+
+    /**
+     * Adds or refreshes the member and replies with the other members to compare it with.
+     * A block that has reached maxSize is not selective enough to be useful, so it takes no new
+     * members and replies with no one.
+     */
+    public Effect<List<PatientFingerprint>> join(JoinRequest request) {
+        var member = request.member();
+        var known = currentState().members().containsKey(member.storePatientRecordId());
+        if (!known && currentState().members().size() >= request.maxSize()) {
+            logger.info("Block is full, not comparing record {}", member.storePatientRecordId());
+            return effects().reply(List.of());
+        }
+        var updated = currentState().with(member);
+        return effects()
+                .updateState(updated)
+                .thenReply(updated.othersThan(member.storePatientRecordId()));
+    }
+
+    public Effect<Done> leave(String storePatientRecordId) {
+        if (!currentState().members().containsKey(storePatientRecordId))
+            return effects().reply(Done.getInstance());
+        var updated = currentState().without(storePatientRecordId);
+        if (updated.members().isEmpty())
+            return effects().deleteEntity().thenReply(Done.getInstance());
+        return effects()
+                .updateState(updated)
+                .thenReply(Done.getInstance());
+    }
+
+}
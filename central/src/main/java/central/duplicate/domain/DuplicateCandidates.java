@@ -0,0 +1,47 @@
+package central.duplicate.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Duplicate candidates of one store patient record, best match first, together with the blocking keys
+ * the record was last filed under. candidateCount is kept as a field so that the view can filter on it.
+ */
+public record DuplicateCandidates(
+        String storePatientRecordId,
+        List<String> blockingKeys,
+        List<Candidate> candidates,
+        int candidateCount
+) {
+
+    public record Candidate(String storePatientRecordId, double score) {}
+
+    public static DuplicateCandidates empty(String storePatientRecordId) {
+        return new DuplicateCandidates(storePatientRecordId, List.of(), List.of(), 0);
+    }
+
+    public DuplicateCandidates withKeys(List<String> keys) {
+        return new DuplicateCandidates(storePatientRecordId, List.copyOf(keys), candidates, candidateCount);
+    }
+
+    public DuplicateCandidates withCandidates(List<Candidate> updated) {
+        var sorted = updated.stream()
+                .sorted(Comparator.comparingDouble(Candidate::score).reversed())
+                .toList();
+        return new DuplicateCandidates(storePatientRecordId, blockingKeys, sorted, sorted.size());
+    }
+
+    public DuplicateCandidates withCandidate(String otherId, double score) {
+        var updated = new ArrayList<>(withoutCandidate(otherId).candidates);
+        updated.add(new Candidate(otherId, score));
+        return withCandidates(updated);
+    }
+
+    public DuplicateCandidates withoutCandidate(String otherId) {
+        return withCandidates(candidates.stream()
+                .filter(c -> !c.storePatientRecordId().equals(otherId))
+                .toList());
+    }
+
+}
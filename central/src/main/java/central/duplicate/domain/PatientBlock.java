@@ -0,0 +1,34 @@
+package central.duplicate.domain;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The records sharing one blocking key, keyed by store patient record id.
+ */
+public record PatientBlock(Map<String, PatientFingerprint> members) {
+
+    public static PatientBlock empty() {
+        return new PatientBlock(Map.of());
+    }
+
+    public PatientBlock with(PatientFingerprint member) {
+        var updated = new HashMap<>(members);
+        updated.put(member.storePatientRecordId(), member);
+        return new PatientBlock(updated);
+    }
+
+    public PatientBlock without(String storePatientRecordId) {
+        var updated = new HashMap<>(members);
+        updated.remove(storePatientRecordId);
+        return new PatientBlock(updated);
+    }
+
+    public List<PatientFingerprint> othersThan(String storePatientRecordId) {
+        return members.values().stream()
+                .filter(m -> !m.storePatientRecordId().equals(storePatientRecordId))
+                .toList();
+    }
+
+}
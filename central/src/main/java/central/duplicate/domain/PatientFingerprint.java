@@ -0,0 +1,65 @@
+package central.duplicate.domain;
+
+import central.patient.domain.HealthNumber;
+import central.patient.domain.StorePatientRecord;
+import central.patient.domain.StorePatientRecordId;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The normalised identifying fields of a store patient record, which is all duplicate detection looks at.
+ * Blocks hold fingerprints, so candidates can be scored without loading the records they belong to.
+ */
+public record PatientFingerprint(
+        String storePatientRecordId,
+        String pharmacyId,
+        String healthNumberKey,
+        String nameKey,
+        String dateOfBirth,
+        String phoneKey
+) {
+
+    public static PatientFingerprint of(StorePatientRecord record) {
+        return new PatientFingerprint(
+                StorePatientRecordId.fromRecord(record).toString(),
+                record.pharmacyId(),
+                HealthNumber.normalise(record.provHealthNumber()),
+                normaliseName(record.firstName()) + "_" + normaliseName(record.lastName()),
+                record.dateOfBirth() == null ? "" : record.dateOfBirth().trim(),
+                record.phoneNumber() == null ? "" : record.phoneNumber().replaceAll("[^0-9]", ""));
+    }
+
+    /**
+     * The blocks this record belongs to. Only records sharing at least one block are ever compared.
+     */
+    public List<String> blockingKeys() {
+        var keys = new ArrayList<String>();
+        if (!healthNumberKey.isEmpty()) keys.add(HealthNumber.blockingKey(healthNumberKey));
+        if (!dateOfBirth.isEmpty()) keys.add("nd_" + nameKey + "_" + dateOfBirth);
+        if (phoneKey.length() >= 7) keys.add("ph_" + phoneKey);
+        return keys;
+    }
+
+    /**
+     * Likelihood, between 0 and 1, that both fingerprints belong to the same person.
+     */
+    public double matchScore(PatientFingerprint other) {
+        double score = 0;
+        if (!healthNumberKey.isEmpty() && healthNumberKey.equals(other.healthNumberKey)) score += 0.5;
+        if (nameKey.equals(other.nameKey)) score += 0.2;
+        if (!dateOfBirth.isEmpty() && dateOfBirth.equals(other.dateOfBirth)) score += 0.2;
+        if (!phoneKey.isEmpty() && phoneKey.equals(other.phoneKey)) score += 0.1;
+        return score;
+    }
+
+    static String normaliseName(String name) {
+        if (name == null) return "";
+        return Normalizer.normalize(name, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z]", "");
+    }
+
+}
@@ -0,0 +1,97 @@
+package central.patient.api;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.annotations.http.Post;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import akka.javasdk.http.HttpException;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import central.patient.application.StorePatientRecordView;
+import central.patient.domain.RecordDigest;
+import java.util.HashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Digests of the records central holds for a pharmacy, for stores to reconcile against.
+ * Stores compare bucket digests first and then list the records of all the buckets that differ in
+ * one request.
+ */
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.ALL))
+@HttpEndpoint("/patients/digests")
+public class RecordDigestEndpoint extends AbstractHttpEndpoint {
+
+    private static final int DEFAULT_BUCKETS = 256;
+    private static final int MAX_BUCKETS = 65536;
+
+    private final ComponentClient componentClient;
+    private final Materializer materializer;
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordDigestEndpoint.class);
+
+    public RecordDigestEndpoint(ComponentClient componentClient, Materializer materializer) {
+        this.componentClient = componentClient;
+        this.materializer = materializer;
+    }
+
+    @Get("/pharmacy/{pharmacy_id}")
+    public RecordDigest.BucketDigests digests(String pharmacy_id) {
+        var buckets = buckets();
+        logger.info("Computing {} bucket digests for pharmacy id={}", buckets, pharmacy_id);
+        var digests = componentClient
+                .forView()
+                .stream(StorePatientRecordView::streamByStoreId)
+                .source(pharmacy_id)
+                .runWith(Sink.fold(new long[buckets], (acc, record) -> {
+                    acc[RecordDigest.bucketOf(record.patientId(), buckets)] ^= RecordDigest.of(record);
+                    return acc;
+                }), materializer)
+                .toCompletableFuture()
+                .join();
+        return RecordDigest.summarise(pharmacy_id, digests);
+    }
+
+    /**
+     * The record digests of every selected bucket, so that a store lists all the buckets that differ
+     * with one pass over the pharmacy's records rather than one per bucket.
+     */
+    @Post("/pharmacy/{pharmacy_id}/entries")
+    public RecordDigest.Entries entries(String pharmacy_id, RecordDigest.EntriesRequest request) {
+        var buckets = request.buckets();
+        checkBuckets(buckets);
+        var selected = new HashSet<Integer>();
+        for (var bucket : request.selected()) {
+            if (bucket < 0 || bucket >= buckets) {
+                throw HttpException.badRequest("Bucket must be between 0 and " + (buckets - 1));
+            }
+            selected.add(bucket);
+        }
+        logger.info("Listing {} of {} buckets for pharmacy id={}", selected.size(), buckets, pharmacy_id);
+        var entries = componentClient
+                .forView()
+                .stream(StorePatientRecordView::streamByStoreId)
+                .source(pharmacy_id)
+                .filter(record -> selected.contains(RecordDigest.bucketOf(record.patientId(), buckets)))
+                .map(record -> new RecordDigest.Entry(record.patientId(), RecordDigest.hex(RecordDigest.of(record))))
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .join();
+        return new RecordDigest.Entries(pharmacy_id, entries);
+    }
+
+    private int buckets() {
+        var buckets = requestContext().queryParams().getInteger("buckets").orElse(DEFAULT_BUCKETS);
+        checkBuckets(buckets);
+        return buckets;
+    }
+
+    private static void checkBuckets(int buckets) {
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw HttpException.badRequest("buckets must be between 1 and " + MAX_BUCKETS);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package central.patient.api;
+
+import central.patient.domain.StorePatientRecord;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * CSV rendering of {@link StorePatientRecord}s for exports. Column names match the record fields,
+ * absent optional values are rendered as empty columns.
+ */
+public final class StorePatientRecordCsv {
+
+    public static final String HEADER = String.join(",", List.of(
+        "pharmacyId",
+        "patientId",
+        "firstName",
+        "lastName",
+        "prefName",
+        "dateOfBirth",
+        "phoneNumber",
+        "provHealthNumber",
+        "unitNumber",
+        "streetNumber",
+        "streetName",
+        "city",
+        "province",
+        "postalCode",
+        "country",
+        "langPref",
+        "smsOptInPref"
+    )) + "\n";
+
+    private StorePatientRecordCsv() {}
+
+    public static String toLine(StorePatientRecord r) {
+        return Stream.of(
+            r.pharmacyId(),
+            r.patientId(),
+            r.firstName(),
+            r.lastName(),
+            orEmpty(r.prefName()),
+            r.dateOfBirth(),
+            r.phoneNumber(),
+            r.provHealthNumber(),
+            orEmpty(r.unitNumber()),
+            r.streetNumber(),
+            r.streetName(),
+            r.city(),
+            r.province(),
+            r.postalCode(),
+            r.country(),
+            r.langPref(),
+            Boolean.toString(r.smsOptInPref())
+        ).map(StorePatientRecordCsv::escape).collect(Collectors.joining(",")) + "\n";
+    }
+
+    private static String orEmpty(Optional<String> value) {
+        return value == null ? "" : value.orElse("");
+    }
+
+    static String escape(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r"))
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        return value;
+    }
+}
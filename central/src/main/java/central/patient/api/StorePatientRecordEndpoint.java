@@ -1,7 +1,14 @@
 package central.patient.api;
 
+import akka.NotUsed;
+import akka.http.javadsl.model.ContentType;
+import akka.http.javadsl.model.ContentTypes;
+import akka.http.javadsl.model.HttpCharsets;
+import akka.http.javadsl.model.HttpEntities;
 import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.MediaTypes;
 import akka.http.javadsl.model.StatusCodes;
+import akka.javasdk.JsonSupport;
 import akka.javasdk.annotations.Acl;
 //import akka.javasdk.annotations.JWT;
 import akka.javasdk.annotations.http.Delete;
@@ -13,12 +20,30 @@ import akka.javasdk.client.ComponentClient;
 import akka.javasdk.http.AbstractHttpEndpoint;
 import akka.javasdk.http.HttpException;
 import akka.javasdk.http.HttpResponses;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import shared.metrics.EndpointMetrics;
+import shared.metrics.Histogram;
+import shared.metrics.MetricsRegistry;
+import central.patient.application.HealthNumberIndexEntity;
+import central.patient.application.PatientStatsView;
 import central.patient.application.StorePatientRecordEntity;
 import central.patient.application.StorePatientRecordView;
+import central.patient.domain.HealthNumber;
+import central.patient.domain.KeyHasher;
+import central.patient.domain.PatientStats;
 import central.patient.domain.StorePatientRecord;
 import central.patient.domain.StorePatientRecordId;
+import central.pharmacy.application.KnownPharmacies;
+import central.pharmacy.application.PharmacyRegistry;
+import central.quarantine.application.QuarantineView;
+import central.quarantine.application.QuarantinedRecordEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.typesafe.config.Config;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,12 +59,51 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
         StorePatientRecordEndpoint.class
     );
 
-    public StorePatientRecordEndpoint(ComponentClient componentClient) {
+    private static final ContentType NDJSON =
+        MediaTypes.applicationWithFixedCharset(
+            "x-ndjson",
+            HttpCharsets.UTF_8
+        ).toContentType();
+
+    private static final ContentType CSV = ContentTypes.create(
+        MediaTypes.TEXT_CSV,
+        HttpCharsets.UTF_8
+    );
+
+    private static final int DEFAULT_SYNC_PAGE_SIZE = 1000;
+    private static final int MAX_SYNC_PAGE_SIZE = 5000;
+
+    private final KnownPharmacies knownPharmacies;
+    private final KeyHasher keyHasher;
+    private final boolean quarantineUnknown;
+    private final int quarantineMaxSize;
+
+    public StorePatientRecordEndpoint(
+        ComponentClient componentClient,
+        PharmacyRegistry pharmacyRegistry,
+        KeyHasher keyHasher,
+        Config config
+    ) {
         this.componentClient = componentClient;
+        this.knownPharmacies = new KnownPharmacies(
+            pharmacyRegistry,
+            componentClient
+        );
+        this.keyHasher = keyHasher;
+        this.quarantineUnknown = config
+            .getString("central.quarantine.unknown-pharmacy")
+            .equals("quarantine");
+        this.quarantineMaxSize = config.getInt(
+            "central.quarantine.max-records-per-pharmacy"
+        );
     }
 
     @Get("/{store_patient_id}")
     public StorePatientRecord get(String store_patient_id) {
+        return EndpointMetrics.timed("GET /patients/{store_patient_id}", requestContext(), () -> doGet(store_patient_id));
+    }
+
+    private StorePatientRecord doGet(String store_patient_id) {
         logger.info("Get patient with id={}", store_patient_id);
         var record = componentClient
             .forEventSourcedEntity(store_patient_id)
@@ -57,8 +121,15 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
 
     @Put("/patient")
     public HttpResponse addRecord(StorePatientRecord record) {
+        return EndpointMetrics.timed("PUT /patients/patient", requestContext(), () -> doAddRecord(record));
+    }
+
+    private HttpResponse doAddRecord(StorePatientRecord record) {
         var id = StorePatientRecordId.fromRecord(record).toString();
         logger.info("Adding patient record with id={}", id);
+        if (!knownPharmacies.isKnown(record.pharmacyId())) {
+            return unknownPharmacy(record);
+        }
         componentClient
             .forEventSourcedEntity(id)
             .method(StorePatientRecordEntity::create)
@@ -68,10 +139,35 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
 
     @Delete("/{store_patient_id}")
     public HttpResponse deleteRecord(String store_patient_id) {
+        return EndpointMetrics.timed("DELETE /patients/{store_patient_id}", requestContext(), () -> doDeleteRecord(store_patient_id));
+    }
+
+    /**
+     * Deletes the record and any copy of it held in the quarantine, so that a release doesn't bring
+     * back a patient the store has deleted. A record that was never ingested, because it was rejected
+     * or is only held in the quarantine, or that is already deleted, is answered with 404; the store's
+     * deliverer treats that as final.
+     */
+    private HttpResponse doDeleteRecord(String store_patient_id) {
         logger.info(
             "Deleting store patient record with id={}",
             store_patient_id
         );
+        var quarantined = componentClient
+            .forKeyValueEntity(store_patient_id)
+            .method(QuarantinedRecordEntity::discard)
+            .invoke();
+        var exists = componentClient
+            .forEventSourcedEntity(store_patient_id)
+            .method(StorePatientRecordEntity::exists)
+            .invoke();
+        if (!exists) {
+            if (quarantined) return HttpResponses.ok();
+            throw HttpException.error(
+                StatusCodes.NOT_FOUND,
+                "No such PatientRecord"
+            );
+        }
         componentClient
             .forEventSourcedEntity(store_patient_id)
             .method(StorePatientRecordEntity::delete)
@@ -81,8 +177,15 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
 
     @Post("/patient")
     public HttpResponse updateRecord(StorePatientRecord record) {
+        return EndpointMetrics.timed("POST /patients/patient", requestContext(), () -> doUpdateRecord(record));
+    }
+
+    private HttpResponse doUpdateRecord(StorePatientRecord record) {
         var id = StorePatientRecordId.fromRecord(record).toString();
         logger.info("Updating patient record with id={}", id);
+        if (!knownPharmacies.isKnown(record.pharmacyId())) {
+            return unknownPharmacy(record);
+        }
         componentClient
             .forEventSourcedEntity(id.toString())
             .method(StorePatientRecordEntity::update)
@@ -90,6 +193,241 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
         return HttpResponses.ok();
     }
 
+    /**
+     * Records for a pharmacyId central doesn't know are not turned into entities. They are either
+     * rejected or held in the quarantine for that id, depending on central.quarantine.unknown-pharmacy.
+     * Quarantined records are answered with 202 and rejected ones with 400; the store's deliverer treats
+     * both as final, so that it doesn't keep redelivering them.
+     * <p>
+     * Each held record is its own entity. Once max-records-per-pharmacy are held, new records for the
+     * pharmacy are dropped, while records already held are still replaced by newer versions. The count
+     * comes from {@link QuarantineView}, so a burst can briefly take a pharmacy past the limit.
+     */
+    private HttpResponse unknownPharmacy(StorePatientRecord record) {
+        if (!quarantineUnknown) {
+            logger.warn(
+                "Rejecting record for unknown pharmacy id={}",
+                record.pharmacyId()
+            );
+            throw HttpException.badRequest(
+                "Unknown pharmacy " + record.pharmacyId()
+            );
+        }
+        logger.warn(
+            "Quarantining record for unknown pharmacy id={}",
+            record.pharmacyId()
+        );
+        var heldCount = componentClient
+            .forView()
+            .method(QuarantineView::countByPharmacy)
+            .invoke(record.pharmacyId())
+            .amount();
+        var held = componentClient
+            .forKeyValueEntity(StorePatientRecordId.fromRecord(record).toString())
+            .method(QuarantinedRecordEntity::hold)
+            .invoke(new QuarantinedRecordEntity.HoldRequest(
+                record,
+                heldCount == null || heldCount < quarantineMaxSize
+            ));
+        if (!held) {
+            logger.warn(
+                "Quarantine for pharmacy id={} is full, dropped a record",
+                record.pharmacyId()
+            );
+            MetricsRegistry.global()
+                .counter("quarantine_dropped_total", "Records for unknown pharmacies dropped because the quarantine was full")
+                .increment();
+        }
+        return HttpResponses.accepted();
+    }
+
+    /**
+     * Streams all records of one pharmacy as NDJSON, or as CSV when the request accepts text/csv.
+     * Records are written as the view emits them, so memory use does not grow with the export size.
+     */
+    @Get("/export/pharmacy/{pharmacy_id}")
+    public HttpResponse exportByPharmacy(String pharmacy_id) {
+        return EndpointMetrics.timed("GET /patients/export/pharmacy/{pharmacy_id}", requestContext(), () -> doExportByPharmacy(pharmacy_id));
+    }
+
+    private HttpResponse doExportByPharmacy(String pharmacy_id) {
+        logger.info("Exporting patient records for pharmacy id={}", pharmacy_id);
+        return export(
+            componentClient
+                .forView()
+                .stream(StorePatientRecordView::streamByStoreId)
+                .source(pharmacy_id)
+        );
+    }
+
+    /**
+     * Streams all records of one province, see {@link #exportByPharmacy(String)}.
+     */
+    @Get("/export/province/{province}")
+    public HttpResponse exportByProvince(String province) {
+        return EndpointMetrics.timed("GET /patients/export/province/{province}", requestContext(), () -> doExportByProvince(province));
+    }
+
+    private HttpResponse doExportByProvince(String province) {
+        logger.info("Exporting patient records for province={}", province);
+        return export(
+            componentClient
+                .forView()
+                .stream(StorePatientRecordView::streamByProvince)
+                .source(province)
+        );
+    }
+
+    public record HealthNumberLookup(
+        String healthNumberKey,
+        List<String> storePatientRecordIds,
+        Optional<List<StorePatientRecord>> records
+    ) {}
+
+    /**
+     * Ids of every store record carrying the health number, read from the health-number-index.
+     * With ?hydrate=true the records themselves are fetched as well, in parallel. The index is updated
+     * by a consumer and may still list a record that has since been deleted; such records are left out.
+     */
+    @Get("/health-number/{health_number}")
+    public HealthNumberLookup lookupByHealthNumber(String health_number) {
+        return EndpointMetrics.timed("GET /patients/health-number/{health_number}", requestContext(), () -> doLookupByHealthNumber(health_number));
+    }
+
+    private HealthNumberLookup doLookupByHealthNumber(String health_number) {
+        var key = HealthNumber.normalise(health_number);
+        if (key.isEmpty()) {
+            throw HttpException.badRequest("Health number is empty");
+        }
+        var ids = componentClient
+            .forKeyValueEntity(keyHasher.hash(HealthNumber.blockingKey(key)))
+            .method(HealthNumberIndexEntity::get)
+            .invoke()
+            .storePatientRecordIds();
+        var hydrate = requestContext()
+            .queryParams()
+            .getBoolean("hydrate")
+            .orElse(false);
+        if (!hydrate) {
+            return new HealthNumberLookup(key, ids, Optional.empty());
+        }
+        var lookups = ids
+            .stream()
+            .map(id ->
+                componentClient
+                    .forEventSourcedEntity(id)
+                    .method(StorePatientRecordEntity::getRecord)
+                    .invokeAsync()
+                    .toCompletableFuture()
+                    .exceptionally(e -> {
+                        logger.debug("Skipping indexed record id={} that could not be read", id, e);
+                        return Optional.empty();
+                    })
+            )
+            .toList();
+        var records = lookups
+            .stream()
+            .map(CompletableFuture::join)
+            .flatMap(Optional::stream)
+            .toList();
+        return new HealthNumberLookup(key, ids, Optional.of(records));
+    }
+
+    public record Count(long amount) {}
+
+    /**
+     * Patient counts in total, by pharmacy and by province, as kept by the patient stats view. Only
+     * non-zero counts are listed.
+     */
+    @Get("/stats")
+    public PatientStats stats() {
+        return EndpointMetrics.timed("GET /patients/stats", requestContext(), () -> doStats());
+    }
+
+    private PatientStats doStats() {
+        return PatientStats.of(componentClient.forView().method(PatientStatsView::getAll).invoke().pharmacies());
+    }
+
+    @Get("/stats/pharmacy/{pharmacy_id}")
+    public Count statsForPharmacy(String pharmacy_id) {
+        return EndpointMetrics.timed("GET /patients/stats/pharmacy/{pharmacy_id}", requestContext(), () -> doStatsForPharmacy(pharmacy_id));
+    }
+
+    private Count doStatsForPharmacy(String pharmacy_id) {
+        var pharmacies = componentClient
+            .forView()
+            .method(PatientStatsView::getByPharmacy)
+            .invoke(pharmacy_id)
+            .pharmacies();
+        return new Count(PatientStats.of(pharmacies).total());
+    }
+
+    @Get("/stats/province/{province}")
+    public Count statsForProvince(String province) {
+        return EndpointMetrics.timed("GET /patients/stats/province/{province}", requestContext(), () -> doStatsForProvince(province));
+    }
+
+    private Count doStatsForProvince(String province) {
+        return new Count(doStats().byProvince().getOrDefault(province, 0L));
+    }
+
+    /**
+     * Pages through all records of one pharmacy, so that a store can rebuild its patient list.
+     * Takes optional ?pageToken= (empty for the first page) and ?pageSize= parameters.
+     */
+    @Get("/sync/pharmacy/{pharmacy_id}")
+    public StorePatientRecordView.StorePatientRecordPage syncPage(
+        String pharmacy_id
+    ) {
+        return EndpointMetrics.timed("GET /patients/sync/pharmacy/{pharmacy_id}", requestContext(), () -> doSyncPage(pharmacy_id));
+    }
+
+    private StorePatientRecordView.StorePatientRecordPage doSyncPage(
+        String pharmacy_id
+    ) {
+        var params = requestContext().queryParams();
+        var pageToken = params.getString("pageToken").orElse("");
+        var pageSize = Math.min(
+            params.getInteger("pageSize").orElse(DEFAULT_SYNC_PAGE_SIZE),
+            MAX_SYNC_PAGE_SIZE
+        );
+        return componentClient
+            .forView()
+            .method(StorePatientRecordView::pageByStoreId)
+            .invoke(
+                new StorePatientRecordView.PageRequest(
+                    pharmacy_id,
+                    pageToken,
+                    pageSize
+                )
+            );
+    }
+
+    private HttpResponse export(Source<StorePatientRecord, NotUsed> records) {
+        var csv = requestContext()
+            .requestHeader("Accept")
+            .map(header -> header.value().contains("text/csv"))
+            .orElse(false);
+        Source<ByteString, NotUsed> body = csv
+            ? Source.single(ByteString.fromString(StorePatientRecordCsv.HEADER)).concat(
+                records.map(r -> ByteString.fromString(StorePatientRecordCsv.toLine(r)))
+            )
+            : records.map(StorePatientRecordEndpoint::toJsonLine);
+        return HttpResponse.create()
+            .withStatus(StatusCodes.OK)
+            .withEntity(HttpEntities.createChunked(csv ? CSV : NDJSON, body));
+    }
+
+    private static ByteString toJsonLine(Object value) {
+        try {
+            return ByteString.fromString(
+                JsonSupport.getObjectMapper().writeValueAsString(value) + "\n"
+            );
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public record StorePatientSearchCriteria(
         Optional<String> storeId,
         Optional<String> province,
@@ -109,13 +447,20 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
     public List<StorePatientRecord> searchStorePatients(
         StorePatientSearchCriteria criteria
     ) {
+        return EndpointMetrics.timed("POST /patients/search", requestContext(), () -> doSearchStorePatients(criteria));
+    }
+
+    private List<StorePatientRecord> doSearchStorePatients(
+        StorePatientSearchCriteria criteria
+    ) {
+        // names and health numbers are PHI, only log which of them were given
         logger.info(
             "Store patient search request - storeId: {}, province: {}, firstName: {}, lastName: {}, healthNumber: {}",
             criteria.storeId().orElse("N/A"),
             criteria.province().orElse("N/A"),
-            criteria.firstName().orElse("N/A"),
-            criteria.lastName().orElse("N/A"),
-            criteria.healthNumber().orElse("N/A")
+            criteria.firstName().isPresent() ? "given" : "N/A",
+            criteria.lastName().isPresent() ? "given" : "N/A",
+            criteria.healthNumber().isPresent() ? "given" : "N/A"
         );
 
         String storeId = clean(criteria.storeId());
@@ -141,7 +486,7 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
         // Handle all possible combinations based on non-null criteria
         if (criteriaCount == 5) {
             // All criteria provided
-            return componentClient
+            return viewQuery("searchByAllCriteria", () -> componentClient
                 .forView()
                 .method(StorePatientRecordView::searchByAllCriteria)
                 .invoke(
@@ -153,7 +498,7 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                         healthNumber
                     )
                 )
-                .patientRecords();
+                .patientRecords());
         } else if (criteriaCount == 4) {
             // Four criteria combinations
             if (
@@ -163,7 +508,7 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                 lastName != null
             ) {
                 // Missing healthNumber - use searchByStoreIdAndFullName + filter by province
-                return componentClient
+                return viewQuery("searchByStoreIdAndFullName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByStoreIdAndFullName)
                     .invoke(
@@ -173,7 +518,7 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             lastName
                         )
                     )
-                    .patientRecords()
+                    .patientRecords())
                     .stream()
                     .filter(p -> province.equals(p.province()))
                     .toList();
@@ -182,7 +527,7 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
         } else if (criteriaCount == 3) {
             // Three criteria combinations
             if (storeId != null && firstName != null && lastName != null) {
-                return componentClient
+                return viewQuery("searchByStoreIdAndFullName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByStoreIdAndFullName)
                     .invoke(
@@ -192,11 +537,11 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             lastName
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             } else if (
                 province != null && firstName != null && lastName != null
             ) {
-                return componentClient
+                return viewQuery("searchByProvinceAndFullName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByProvinceAndFullName)
                     .invoke(
@@ -206,13 +551,13 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             lastName
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             }
             // Add other 3-criteria combinations as needed
         } else if (criteriaCount == 2) {
             // Two criteria combinations
             if (storeId != null && firstName != null) {
-                return componentClient
+                return viewQuery("searchByStoreIdAndFirstName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByStoreIdAndFirstName)
                     .invoke(
@@ -221,9 +566,9 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             firstName
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             } else if (storeId != null && lastName != null) {
-                return componentClient
+                return viewQuery("searchByStoreIdAndLastName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByStoreIdAndLastName)
                     .invoke(
@@ -232,9 +577,9 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             lastName
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             } else if (storeId != null && province != null) {
-                return componentClient
+                return viewQuery("searchByStoreIdAndProvince", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByStoreIdAndProvince)
                     .invoke(
@@ -243,9 +588,9 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             province
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             } else if (storeId != null && healthNumber != null) {
-                return componentClient
+                return viewQuery("searchByStoreIdAndHealthNumber", () -> componentClient
                     .forView()
                     .method(
                         StorePatientRecordView::searchByStoreIdAndHealthNumber
@@ -256,9 +601,9 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             healthNumber
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             } else if (firstName != null && lastName != null) {
-                return componentClient
+                return viewQuery("searchByFullName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByFullName)
                     .invoke(
@@ -267,9 +612,9 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             lastName
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             } else if (province != null && firstName != null) {
-                return componentClient
+                return viewQuery("searchByProvinceAndFirstName", () -> componentClient
                     .forView()
                     .method(
                         StorePatientRecordView::searchByProvinceAndFirstName
@@ -280,9 +625,9 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             firstName
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             } else if (province != null && lastName != null) {
-                return componentClient
+                return viewQuery("searchByProvinceAndLastName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByProvinceAndLastName)
                     .invoke(
@@ -291,44 +636,64 @@ public class StorePatientRecordEndpoint extends AbstractHttpEndpoint {
                             lastName
                         )
                     )
-                    .patientRecords();
+                    .patientRecords());
             }
         } else {
             // Single criteria
             if (storeId != null) {
-                return componentClient
+                return viewQuery("searchByStoreId", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByStoreId)
                     .invoke(storeId)
-                    .patientRecords();
+                    .patientRecords());
             } else if (province != null) {
-                return componentClient
+                return viewQuery("searchByProvince", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByProvince)
                     .invoke(province)
-                    .patientRecords();
+                    .patientRecords());
             } else if (firstName != null) {
-                return componentClient
+                return viewQuery("searchByFirstName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByFirstName)
                     .invoke(firstName)
-                    .patientRecords();
+                    .patientRecords());
             } else if (lastName != null) {
-                return componentClient
+                return viewQuery("searchByLastName", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByLastName)
                     .invoke(lastName)
-                    .patientRecords();
+                    .patientRecords());
             } else if (healthNumber != null) {
-                return componentClient
+                return viewQuery("searchByHealthNumber", () -> componentClient
                     .forView()
                     .method(StorePatientRecordView::searchByHealthNumber)
                     .invoke(healthNumber)
-                    .patientRecords();
+                    .patientRecords());
             }
         }
 
         // Fallback - should not reach here
         throw HttpException.badRequest("Unable to process search criteria");
     }
+
+    /**
+     * Runs one of the view queries behind POST /patients/search, recording its latency and result
+     * count per query, so slow searches can be traced to the query that served them.
+     */
+    private List<StorePatientRecord> viewQuery(
+        String query,
+        Supplier<List<StorePatientRecord>> search
+    ) {
+        var start = System.nanoTime();
+        var records = search.get();
+        var metrics = MetricsRegistry.global();
+        metrics
+            .timer("view_query_seconds", "Latency of the view queries behind patient search", "query", query)
+            .observeNanos(System.nanoTime() - start);
+        metrics
+            .histogram("view_query_results", "Records returned by the view queries behind patient search", Histogram.COUNTS, "query", query)
+            .observe(records.size());
+        return records;
+    }
 }
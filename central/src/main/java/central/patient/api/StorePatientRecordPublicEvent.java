@@ -0,0 +1,24 @@
+package central.patient.api;
+
+import akka.javasdk.annotations.TypeName;
+import central.patient.domain.StorePatientRecord;
+
+/**
+ * Events published to other services on the store-patient-records service stream.
+ * These are the public contract, independent of the internal StorePatientRecordEvent types.
+ */
+public sealed interface StorePatientRecordPublicEvent {
+
+    @TypeName("store-patient-record-added")
+    record StorePatientRecordAdded(StorePatientRecord patientRecord) implements StorePatientRecordPublicEvent {}
+
+    @TypeName("store-patient-record-changed")
+    record StorePatientRecordChanged(StorePatientRecord patientRecord) implements StorePatientRecordPublicEvent {}
+
+    /**
+     * storePatientRecordId is the central entity id, pharmacyId-patientId.
+     */
+    @TypeName("store-patient-record-removed")
+    record StorePatientRecordRemoved(String storePatientRecordId) implements StorePatientRecordPublicEvent {}
+
+}
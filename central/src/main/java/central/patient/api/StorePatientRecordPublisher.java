@@ -0,0 +1,34 @@
+package central.patient.api;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Produce;
+import akka.javasdk.consumer.Consumer;
+import central.patient.application.StorePatientRecordEntity;
+import central.patient.domain.StorePatientRecordEvent;
+
+/**
+ * Publishes store patient record changes for downstream services such as provincial.
+ */
+@ComponentId("store-patient-record-publisher")
+@Consume.FromEventSourcedEntity(value = StorePatientRecordEntity.class, ignoreUnknown = true)
+@Produce.ServiceStream(id = StorePatientRecordPublisher.STREAM_ID)
+@Acl(allow = @Acl.Matcher(service = "*"))
+public class StorePatientRecordPublisher extends Consumer {
+
+    public static final String STREAM_ID = "store-patient-records";
+
+    public Effect onCreated(StorePatientRecordEvent.StorePatientRecordCreated event) {
+        return effects().produce(new StorePatientRecordPublicEvent.StorePatientRecordAdded(event.patientRecord()));
+    }
+
+    public Effect onUpdated(StorePatientRecordEvent.StorePatientRecordUpdated event) {
+        return effects().produce(new StorePatientRecordPublicEvent.StorePatientRecordChanged(event.patientRecord()));
+    }
+
+    public Effect onDeleted(StorePatientRecordEvent.StorePatientRecordDeleted event) {
+        var id = messageContext().eventSubject().get();
+        return effects().produce(new StorePatientRecordPublicEvent.StorePatientRecordRemoved(id));
+    }
+}
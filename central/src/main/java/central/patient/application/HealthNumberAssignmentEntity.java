@@ -0,0 +1,44 @@
+package central.patient.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import akka.javasdk.keyvalueentity.KeyValueEntityContext;
+import central.patient.domain.HealthNumberAssignment;
+
+/**
+ * Remembers which health-number-index entry a store patient record is in, keyed by the record id.
+ * Update and delete events don't carry the previous health number, this is how the indexer finds
+ * the entry to leave.
+ */
+@ComponentId("health-number-assignment")
+public class HealthNumberAssignmentEntity extends KeyValueEntity<HealthNumberAssignment> {
+
+    private final String entityId;
+
+    public HealthNumberAssignmentEntity(KeyValueEntityContext context) {
+        this.entityId = context.entityId();
+    }
+
+    @Override
+    public HealthNumberAssignment emptyState() {
+        return new HealthNumberAssignment(entityId, "");
+    }
+
+    public Effect<Done> assign(String healthNumberKey) {
+        if (healthNumberKey.isEmpty())
+            return effects().deleteEntity().thenReply(Done.getInstance());
+        return effects()
+                .updateState(new HealthNumberAssignment(entityId, healthNumberKey))
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<Done> remove() {
+        return effects().deleteEntity().thenReply(Done.getInstance());
+    }
+
+    public ReadOnlyEffect<HealthNumberAssignment> get() {
+        return effects().reply(currentState());
+    }
+
+}
@@ -0,0 +1,51 @@
+package central.patient.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import akka.javasdk.keyvalueentity.KeyValueEntityContext;
+import central.patient.domain.HealthNumberIndex;
+
+/**
+ * Store patient record ids by health number, so that a cross-store lookup is a single entity read rather
+ * than a view query. Keyed by the hashed health number blocking key, the same key the duplicate blocks
+ * use, never by the health number itself.
+ */
+@ComponentId("health-number-index")
+public class HealthNumberIndexEntity extends KeyValueEntity<HealthNumberIndex> {
+
+    private final String entityId;
+
+    public HealthNumberIndexEntity(KeyValueEntityContext context) {
+        this.entityId = context.entityId();
+    }
+
+    @Override
+    public HealthNumberIndex emptyState() {
+        return HealthNumberIndex.empty(entityId);
+    }
+
+    public Effect<Done> add(String storePatientRecordId) {
+        if (currentState().storePatientRecordIds().contains(storePatientRecordId))
+            return effects().reply(Done.getInstance());
+        return effects()
+                .updateState(currentState().with(storePatientRecordId))
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<Done> remove(String storePatientRecordId) {
+        if (!currentState().storePatientRecordIds().contains(storePatientRecordId))
+            return effects().reply(Done.getInstance());
+        var updated = currentState().without(storePatientRecordId);
+        if (updated.storePatientRecordIds().isEmpty())
+            return effects().deleteEntity().thenReply(Done.getInstance());
+        return effects()
+                .updateState(updated)
+                .thenReply(Done.getInstance());
+    }
+
+    public ReadOnlyEffect<HealthNumberIndex> get() {
+        return effects().reply(currentState());
+    }
+
+}
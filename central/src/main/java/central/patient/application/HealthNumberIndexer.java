@@ -0,0 +1,88 @@
+package central.patient.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import central.patient.domain.HealthNumber;
+import central.patient.domain.KeyHasher;
+import central.patient.domain.StorePatientRecord;
+import central.patient.domain.StorePatientRecordEvent;
+import central.patient.domain.StorePatientRecordId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the health-number-index current as store patient records are created, changed and deleted.
+ */
+@ComponentId("health-number-indexer")
+@Consume.FromEventSourcedEntity(value = StorePatientRecordEntity.class, ignoreUnknown = true)
+public class HealthNumberIndexer extends Consumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthNumberIndexer.class);
+
+    private final ComponentClient componentClient;
+    private final KeyHasher keyHasher;
+
+    public HealthNumberIndexer(ComponentClient componentClient, KeyHasher keyHasher) {
+        this.componentClient = componentClient;
+        this.keyHasher = keyHasher;
+    }
+
+    public Effect onCreated(StorePatientRecordEvent.StorePatientRecordCreated event) {
+        return index(event.patientRecord());
+    }
+
+    public Effect onUpdated(StorePatientRecordEvent.StorePatientRecordUpdated event) {
+        return index(event.patientRecord());
+    }
+
+    public Effect onDeleted(StorePatientRecordEvent.StorePatientRecordDeleted event) {
+        var id = messageContext().eventSubject().get();
+        var previous = assignmentOf(id);
+        if (!previous.isEmpty()) leave(previous, id);
+        componentClient
+                .forKeyValueEntity(id)
+                .method(HealthNumberAssignmentEntity::remove)
+                .invoke();
+        return effects().done();
+    }
+
+    private Effect index(StorePatientRecord record) {
+        var id = StorePatientRecordId.fromRecord(record).toString();
+        var healthNumber = HealthNumber.normalise(record.provHealthNumber());
+        var key = healthNumber.isEmpty() ? "" : keyHasher.hash(HealthNumber.blockingKey(healthNumber));
+        var previous = assignmentOf(id);
+        if (!previous.isEmpty() && !previous.equals(key)) {
+            logger.info("Health number of record {} changed, moving it in the index", id);
+            leave(previous, id);
+        }
+        // Added even when unchanged, events are delivered at least once and add is idempotent.
+        if (!key.isEmpty())
+            componentClient
+                    .forKeyValueEntity(key)
+                    .method(HealthNumberIndexEntity::add)
+                    .invoke(id);
+        componentClient
+                .forKeyValueEntity(id)
+                .method(HealthNumberAssignmentEntity::assign)
+                .invoke(key);
+        return effects().done();
+    }
+
+    private String assignmentOf(String id) {
+        return componentClient
+                .forKeyValueEntity(id)
+                .method(HealthNumberAssignmentEntity::get)
+                .invoke()
+                .healthNumberKey();
+    }
+
+    private void leave(String key, String id) {
+        componentClient
+                .forKeyValueEntity(key)
+                .method(HealthNumberIndexEntity::remove)
+                .invoke(id);
+    }
+
+}
@@ -0,0 +1,57 @@
+package central.patient.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import central.patient.domain.PatientStats.PharmacyCount;
+import central.patient.domain.PharmacyPatientCountEvent;
+import java.util.List;
+
+/**
+ * Patient counts per pharmacy, in total and by province. Rows change by one record at a time from
+ * {@link PharmacyPatientCountEntity} events, which are only persisted when a record's count changes, so
+ * reading the stats is a single query no matter how many patients there are.
+ */
+@ComponentId("patient-stats-view")
+public class PatientStatsView extends View {
+
+    public record PharmacyCounts(List<PharmacyCount> pharmacies) {}
+
+    @Query(
+        """
+        SELECT * AS pharmacies FROM patientStats
+        ORDER BY pharmacyId
+        """
+    )
+    public QueryEffect<PharmacyCounts> getAll() {
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT * AS pharmacies FROM patientStats
+        WHERE pharmacyId = :pharmacyId
+        """
+    )
+    public QueryEffect<PharmacyCounts> getByPharmacy(String pharmacyId) {
+        return queryResult();
+    }
+
+    @Table("patientStats")
+    @Consume.FromEventSourcedEntity(PharmacyPatientCountEntity.class)
+    public static class PatientStatsUpdater extends TableUpdater<PharmacyCount> {
+
+        public Effect<PharmacyCount> onEvent(PharmacyPatientCountEvent event) {
+            var current = rowState() != null
+                ? rowState()
+                : PharmacyCount.empty(updateContext().eventSubject().get());
+            return switch (event) {
+                case PharmacyPatientCountEvent.PatientCountChanged changed ->
+                    effects().updateRow(current.withChange(changed.fromProvince(), changed.toProvince()));
+            };
+        }
+    }
+}
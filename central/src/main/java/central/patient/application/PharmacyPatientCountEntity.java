@@ -0,0 +1,52 @@
+package central.patient.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+import central.patient.domain.PharmacyPatientCount;
+import central.patient.domain.PharmacyPatientCountEvent;
+import java.util.Objects;
+import shared.metrics.RecoveryTracker;
+
+/**
+ * Which of one pharmacy's store patient records are counted, and under which province. Keyed by
+ * pharmacyId and kept current by {@link PharmacyPatientCounter}; {@link PatientStatsView} sums the
+ * changes into counts.
+ * <p>
+ * Only a change in whether or where a record is counted is persisted, so the same store patient record
+ * event consumed twice is counted once. One entity per pharmacy spreads the writes the way the stores
+ * already spread them.
+ */
+@ComponentId("pharmacy-patient-count")
+public class PharmacyPatientCountEntity
+        extends EventSourcedEntity<PharmacyPatientCount, PharmacyPatientCountEvent> {
+
+    private final RecoveryTracker recovery = new RecoveryTracker("pharmacy-patient-count");
+
+    /**
+     * @param province the province to count the record under, null to stop counting it
+     */
+    public record Count(String storePatientRecordId, String province) {}
+
+    @Override
+    public PharmacyPatientCount emptyState() {
+        return PharmacyPatientCount.empty();
+    }
+
+    public Effect<Done> count(Count count) {
+        recovery.commandReceived(currentState());
+        var from = currentState().provinceOf(count.storePatientRecordId()).orElse(null);
+        if (Objects.equals(from, count.province())) return effects().reply(Done.getInstance());
+        return effects()
+                .persist(new PharmacyPatientCountEvent.PatientCountChanged(count.storePatientRecordId(), from, count.province()))
+                .thenReply(newState -> Done.getInstance());
+    }
+
+    public PharmacyPatientCount applyEvent(PharmacyPatientCountEvent event) {
+        recovery.eventApplied();
+        return switch (event) {
+            case PharmacyPatientCountEvent.PatientCountChanged evt -> currentState().apply(evt);
+        };
+    }
+
+}
@@ -0,0 +1,49 @@
+package central.patient.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import central.patient.domain.StorePatientRecordEvent;
+import central.patient.domain.StorePatientRecordId;
+import java.util.Objects;
+
+/**
+ * Keeps {@link PharmacyPatientCountEntity} current from store patient record events. Each event sets
+ * where the record is counted rather than adding or subtracting, so a redelivered event changes nothing.
+ */
+@ComponentId("pharmacy-patient-counter")
+@Consume.FromEventSourcedEntity(value = StorePatientRecordEntity.class, ignoreUnknown = true)
+public class PharmacyPatientCounter extends Consumer {
+
+    private final ComponentClient componentClient;
+
+    public PharmacyPatientCounter(ComponentClient componentClient) {
+        this.componentClient = componentClient;
+    }
+
+    public Effect onCreated(StorePatientRecordEvent.StorePatientRecordCreated event) {
+        return count(Objects.requireNonNullElse(event.patientRecord().province(), ""));
+    }
+
+    public Effect onProvinceChanged(StorePatientRecordEvent.StorePatientRecordProvinceChanged event) {
+        return count(Objects.requireNonNullElse(event.toProvince(), ""));
+    }
+
+    public Effect onDeleted(StorePatientRecordEvent.StorePatientRecordDeleted ignore) {
+        return count(null);
+    }
+
+    /**
+     * @param province the province to count the record under, null to stop counting it
+     */
+    private Effect count(String province) {
+        var id = messageContext().eventSubject().get();
+        componentClient
+                .forEventSourcedEntity(StorePatientRecordId.parse(id).pharmacyId())
+                .method(PharmacyPatientCountEntity::count)
+                .invoke(new PharmacyPatientCountEntity.Count(id, province));
+        return effects().done();
+    }
+
+}
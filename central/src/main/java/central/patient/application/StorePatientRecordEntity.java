@@ -6,9 +6,12 @@ import akka.javasdk.eventsourcedentity.EventSourcedEntity;
 import akka.javasdk.eventsourcedentity.EventSourcedEntityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import shared.metrics.RecoveryTracker;
 import central.patient.domain.StorePatientRecord;
 import central.patient.domain.StorePatientRecordEvent;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @ComponentId("store-patient-record")
@@ -17,6 +20,7 @@ public class StorePatientRecordEntity
 
 
     private final String entityId;
+    private final RecoveryTracker recovery = new RecoveryTracker("store-patient-record");
 
     private static final Logger logger = LoggerFactory.getLogger(StorePatientRecordEntity.class);
 
@@ -30,6 +34,7 @@ public class StorePatientRecordEntity
     }
 
     public Effect<Done> create(StorePatientRecord patientRecord) {
+        recovery.commandReceived(currentState());
         if (Optional.ofNullable(currentState()).isPresent()) {
             logger.info("StorePatientRecord id={} already exists.", entityId);
             return effects().error("StorePatientRecord already exists.");
@@ -44,39 +49,58 @@ public class StorePatientRecordEntity
     }
 
     public ReadOnlyEffect<Optional<StorePatientRecord>> getRecord() {
+        recovery.commandReceived(currentState());
         if (isDeleted()) {
             return effects().error("StorePatientRecord expunged.");
         }
         return effects().reply(Optional.ofNullable(currentState()));
     }
 
+    /**
+     * Whether there is a record to update or delete, false before it is created and once it is deleted.
+     */
+    public ReadOnlyEffect<Boolean> exists() {
+        recovery.commandReceived(currentState());
+        return effects().reply(currentState() != null && !isDeleted());
+    }
+
     public Effect<Done> update(StorePatientRecord patientRecord) {
+        recovery.commandReceived(currentState());
         if (isDeleted()) {
             return effects().error("StorePatientRecord expunged.");
         }
         if(currentState() == null)
             return effects().error("StorePatientRecord not found.");
+        var updated = new StorePatientRecordEvent.StorePatientRecordUpdated(patientRecord);
+        if (!Objects.equals(currentState().province(), patientRecord.province()))
+            return effects()
+                    .persistAll(List.of(updated, new StorePatientRecordEvent.StorePatientRecordProvinceChanged(
+                            patientRecord.pharmacyId(), currentState().province(), patientRecord.province())))
+                    .thenReply(newState -> Done.getInstance());
         return effects()
-                        .persist(new StorePatientRecordEvent.StorePatientRecordUpdated(patientRecord))
+                        .persist(updated)
                         .thenReply(newState -> Done.getInstance());
     }
 
     public Effect<Done> delete() {
+        recovery.commandReceived(currentState());
         if(currentState() == null)
             return effects().error("StorePatientRecord not found");
         else if(isDeleted())
             return effects().error("StorePatientRecord expunged");
         else return effects()
-                    .persist(new StorePatientRecordEvent.StorePatientRecordDeleted())
+                    .persist(new StorePatientRecordEvent.StorePatientRecordDeleted(currentState()))
                     .deleteEntity()
                     .thenReply(newState -> Done.getInstance());
     }
 
     public StorePatientRecord applyEvent(StorePatientRecordEvent event) {
+        recovery.eventApplied();
         return switch (event) {
             case StorePatientRecordEvent.StorePatientRecordCreated evt -> evt.patientRecord();
             case StorePatientRecordEvent.StorePatientRecordUpdated evt -> evt.patientRecord();
             case StorePatientRecordEvent.StorePatientRecordDeleted evt -> currentState();
+            case StorePatientRecordEvent.StorePatientRecordProvinceChanged evt -> currentState();
         };
     }
 
@@ -6,6 +6,7 @@ import akka.javasdk.annotations.Query;
 import akka.javasdk.annotations.Table;
 import akka.javasdk.view.TableUpdater;
 import akka.javasdk.view.View;
+import shared.metrics.ViewLag;
 import central.patient.domain.StorePatientRecord;
 import central.patient.domain.StorePatientRecordEvent;
 import java.util.List;
@@ -328,6 +329,57 @@ public class StorePatientRecordView extends View {
         return queryResult();
     }
 
+    public record PageRequest(String storeId, String pageToken, int pageSize) {}
+
+    public record StorePatientRecordPage(
+        List<StorePatientRecord> patientRecords,
+        String nextPageToken,
+        boolean hasMore
+    ) {}
+
+    /**
+     * One page of a pharmacy's records, for stores restoring from central. Pass an empty
+     * pageToken for the first page and the returned nextPageToken after that.
+     */
+    @Query(
+        """
+        SELECT * AS patientRecords, next_page_token() AS nextPageToken, has_more() AS hasMore
+        FROM storePatientRecords
+        WHERE pharmacyId = :storeId
+        OFFSET page_token_offset(:pageToken)
+        LIMIT :pageSize
+        """
+    )
+    public QueryEffect<StorePatientRecordPage> pageByStoreId(PageRequest request) {
+        logger.info("Paging patients by store ID: {}", request.storeId());
+        return queryResult();
+    }
+
+    /**
+     * Streaming variants for exports, rows are emitted as they are read rather than collected into a list.
+     */
+    @Query(
+        """
+        SELECT * FROM storePatientRecords
+        WHERE pharmacyId = :storeId
+        """
+    )
+    public QueryStreamEffect<StorePatientRecord> streamByStoreId(String storeId) {
+        logger.info("Streaming patients by store ID: {}", storeId);
+        return queryStreamResult();
+    }
+
+    @Query(
+        """
+        SELECT * FROM storePatientRecords
+        WHERE province = :province
+        """
+    )
+    public QueryStreamEffect<StorePatientRecord> streamByProvince(String province) {
+        logger.info("Streaming patients by province: {}", province);
+        return queryStreamResult();
+    }
+
     @Table("storePatientRecords")
     @Consume.FromEventSourcedEntity(
         value = StorePatientRecordEntity.class,
@@ -340,6 +392,13 @@ public class StorePatientRecordView extends View {
             StorePatientTableUpdater.class
         );
 
+        private void recordApplied() {
+            ViewLag.global().applied(
+                "store-patient-record-view",
+                updateContext().metadata().asCloudEvent().time()
+            );
+        }
+
         public Effect<StorePatientRecord> onStorePatientRecordCreated(
             StorePatientRecordEvent.StorePatientRecordCreated event
         ) {
@@ -348,6 +407,7 @@ public class StorePatientRecordView extends View {
                 event.patientRecord().pharmacyId(),
                 event.patientRecord().patientId()
             );
+            recordApplied();
             return effects().updateRow(event.patientRecord());
         }
 
@@ -359,6 +419,7 @@ public class StorePatientRecordView extends View {
                 event.patientRecord().pharmacyId(),
                 event.patientRecord().patientId()
             );
+            recordApplied();
             return effects().updateRow(event.patientRecord());
         }
 
@@ -366,6 +427,7 @@ public class StorePatientRecordView extends View {
             StorePatientRecordEvent.StorePatientRecordDeleted event
         ) {
             logger.info("Store patient record deleted from search view");
+            recordApplied();
             return effects().deleteRow();
         }
     }
@@ -0,0 +1,26 @@
+package central.patient.domain;
+
+import java.util.Locale;
+
+public final class HealthNumber {
+
+    private HealthNumber() {}
+
+    /**
+     * Lookup key for a provincial health number: upper case, letters and digits only,
+     * so that "phn 123-456" and "PHN123456" find the same patient.
+     */
+    public static String normalise(String healthNumber) {
+        if (healthNumber == null) return "";
+        return healthNumber.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+    }
+
+    /**
+     * The duplicate blocking key of a normalised health number. Hashed with {@link KeyHasher}, it is also
+     * the id of the health-number-index entry, so the health number is in no entity id.
+     */
+    public static String blockingKey(String normalised) {
+        return "hn_" + normalised;
+    }
+
+}
@@ -0,0 +1,6 @@
+package central.patient.domain;
+
+/**
+ * The hashed health number key a store patient record is currently indexed under.
+ */
+public record HealthNumberAssignment(String storePatientRecordId, String healthNumberKey) {}
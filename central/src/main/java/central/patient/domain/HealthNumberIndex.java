@@ -0,0 +1,29 @@
+package central.patient.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The store patient records carrying one normalised health number, see {@link HealthNumber#normalise}.
+ * healthNumberKey is the hashed key, see {@link HealthNumber#blockingKey}.
+ */
+public record HealthNumberIndex(String healthNumberKey, List<String> storePatientRecordIds) {
+
+    public static HealthNumberIndex empty(String healthNumberKey) {
+        return new HealthNumberIndex(healthNumberKey, List.of());
+    }
+
+    public HealthNumberIndex with(String storePatientRecordId) {
+        if (storePatientRecordIds.contains(storePatientRecordId)) return this;
+        var updated = new ArrayList<>(storePatientRecordIds);
+        updated.add(storePatientRecordId);
+        return new HealthNumberIndex(healthNumberKey, updated);
+    }
+
+    public HealthNumberIndex without(String storePatientRecordId) {
+        return new HealthNumberIndex(healthNumberKey, storePatientRecordIds.stream()
+                .filter(id -> !id.equals(storePatientRecordId))
+                .toList());
+    }
+
+}
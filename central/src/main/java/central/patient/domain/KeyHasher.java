@@ -0,0 +1,36 @@
+package central.patient.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Turns lookup keys built from patient identifiers (health number, name and date of birth, phone) into
+ * entity ids that don't reveal them. The key's type prefix, up to and including the first '_', is kept
+ * so that ids stay recognisable; the rest is replaced by a salted SHA-256. The salt comes from
+ * central.key-hashing.salt, and every key changes with it.
+ */
+public final class KeyHasher {
+
+    private final byte[] salt;
+
+    public KeyHasher(String salt) {
+        this.salt = salt.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String hash(String key) {
+        var separator = key.indexOf('_');
+        var prefix = key.substring(0, separator + 1);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(salt);
+        digest.update((byte) 0);
+        return prefix + HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
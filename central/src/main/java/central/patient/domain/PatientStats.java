@@ -0,0 +1,61 @@
+package central.patient.domain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Store patient record counts, in total and by pharmacy and province. Records without a province are
+ * counted under "" and only show up in the total and their pharmacy's count.
+ */
+public record PatientStats(long total, Map<String, Long> byPharmacy, Map<String, Long> byProvince) {
+
+    /**
+     * Count of one pharmacy's patients, in total and by province, as kept by the patient stats view.
+     */
+    public record PharmacyCount(String pharmacyId, long patients, List<ProvinceCount> provinces) {
+
+        public static PharmacyCount empty(String pharmacyId) {
+            return new PharmacyCount(pharmacyId, 0, List.of());
+        }
+
+        /**
+         * The count after one record moved from one province to another; a null province means the record
+         * wasn't, or no longer is, counted.
+         */
+        public PharmacyCount withChange(String fromProvince, String toProvince) {
+            var byProvince = new TreeMap<String, Long>();
+            for (var province : provinces) byProvince.put(province.province(), province.patients());
+            var total = patients;
+            if (fromProvince != null) {
+                total--;
+                byProvince.merge(fromProvince, -1L, Long::sum);
+            }
+            if (toProvince != null) {
+                total++;
+                byProvince.merge(toProvince, 1L, Long::sum);
+            }
+            var updated = byProvince.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new ProvinceCount(entry.getKey(), entry.getValue()))
+                .toList();
+            return new PharmacyCount(pharmacyId, total, updated);
+        }
+    }
+
+    public record ProvinceCount(String province, long patients) {}
+
+    public static PatientStats of(List<PharmacyCount> pharmacies) {
+        var byPharmacy = new TreeMap<String, Long>();
+        var byProvince = new TreeMap<String, Long>();
+        for (var pharmacy : pharmacies) {
+            if (pharmacy.patients() > 0) byPharmacy.put(pharmacy.pharmacyId(), pharmacy.patients());
+            for (var province : pharmacy.provinces()) {
+                if (province.patients() > 0 && !province.province().isEmpty()) byProvince.merge(province.province(), province.patients(), Long::sum);
+            }
+        }
+        var total = byPharmacy.values().stream().mapToLong(Long::longValue).sum();
+        return new PatientStats(total, byPharmacy, byProvince);
+    }
+
+}
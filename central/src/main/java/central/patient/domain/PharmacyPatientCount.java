@@ -0,0 +1,31 @@
+package central.patient.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The store patient records of one pharmacy that have been counted, each with the province it is
+ * counted under. Counting a record again under the same province changes nothing, which is what makes
+ * the counts safe against events that are consumed more than once.
+ * <p>
+ * The map is updated in place when events are applied; copying it for every event would make each
+ * count cost as much as the pharmacy has patients.
+ */
+public record PharmacyPatientCount(Map<String, String> provinceByRecord) {
+
+    public static PharmacyPatientCount empty() {
+        return new PharmacyPatientCount(new HashMap<>());
+    }
+
+    public Optional<String> provinceOf(String storePatientRecordId) {
+        return Optional.ofNullable(provinceByRecord.get(storePatientRecordId));
+    }
+
+    public PharmacyPatientCount apply(PharmacyPatientCountEvent.PatientCountChanged event) {
+        if (event.toProvince() == null) provinceByRecord.remove(event.storePatientRecordId());
+        else provinceByRecord.put(event.storePatientRecordId(), event.toProvince());
+        return this;
+    }
+
+}
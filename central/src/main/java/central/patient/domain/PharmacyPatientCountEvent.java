@@ -0,0 +1,15 @@
+package central.patient.domain;
+
+import akka.javasdk.annotations.TypeName;
+
+public sealed interface PharmacyPatientCountEvent {
+
+    /**
+     * A record counted, moved to another province or no longer counted. fromProvince is null when the
+     * record wasn't counted before, toProvince when it no longer is.
+     */
+    @TypeName("pharmacy-patient-count-changed")
+    record PatientCountChanged(String storePatientRecordId, String fromProvince, String toProvince)
+            implements PharmacyPatientCountEvent {}
+
+}
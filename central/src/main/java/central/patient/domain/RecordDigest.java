@@ -0,0 +1,92 @@
+package central.patient.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Content digests of store patient records for anti-entropy between store and central.
+ * <p>
+ * Records are grouped into buckets by patientId. A bucket digest is the XOR of its record digests, so
+ * it doesn't depend on the order records are read in, and two sides holding the same records in a
+ * bucket get the same digest. Stores compute the same digests (pharmacy.application.central.client
+ * .domain.RecordDigest), both must change together.
+ */
+public final class RecordDigest {
+
+    private static final char SEPARATOR = '\u001f';
+
+    private RecordDigest() {}
+
+    public record BucketDigests(String pharmacyId, int buckets, String root, List<String> digests) {}
+
+    public record Entry(String patientId, String digest) {}
+
+    /**
+     * The buckets, out of buckets, whose records to list.
+     */
+    public record EntriesRequest(int buckets, List<Integer> selected) {}
+
+    public record Entries(String pharmacyId, List<Entry> entries) {}
+
+    public static long of(StorePatientRecord record) {
+        var canonical = String.join(String.valueOf(SEPARATOR),
+                text(record.pharmacyId()),
+                text(record.patientId()),
+                text(record.firstName()),
+                text(record.lastName()),
+                text(record.prefName()),
+                text(record.dateOfBirth()),
+                text(record.phoneNumber()),
+                text(record.provHealthNumber()),
+                text(record.unitNumber()),
+                text(record.streetNumber()),
+                text(record.streetName()),
+                text(record.city()),
+                text(record.province()),
+                text(record.postalCode()),
+                text(record.country()),
+                text(record.langPref()),
+                String.valueOf(record.smsOptInPref()));
+        return ByteBuffer.wrap(sha256(canonical)).getLong();
+    }
+
+    public static int bucketOf(String patientId, int buckets) {
+        return Math.floorMod(patientId.hashCode(), buckets);
+    }
+
+    public static String hex(long digest) {
+        return HexFormat.of().toHexDigits(digest);
+    }
+
+    public static BucketDigests summarise(String pharmacyId, long[] buckets) {
+        long root = 0;
+        var digests = new String[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            root ^= buckets[i];
+            digests[i] = hex(buckets[i]);
+        }
+        return new BucketDigests(pharmacyId, buckets.length, hex(root), List.of(digests));
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String text(Optional<String> value) {
+        return value == null ? "" : value.orElse("");
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -10,7 +10,18 @@ public sealed interface StorePatientRecordEvent {
     @TypeName("store-patient-record-updated")
     record StorePatientRecordUpdated(StorePatientRecord patientRecord) implements StorePatientRecordEvent {}
 
+    /**
+     * Carries the removed record so that consumers can undo what they derived from it.
+     * The record is null in events persisted before it was added.
+     */
     @TypeName("store-patient-record-deleted")
-    record StorePatientRecordDeleted() implements StorePatientRecordEvent {}
+    record StorePatientRecordDeleted(StorePatientRecord patientRecord) implements StorePatientRecordEvent {}
+
+    /**
+     * Persisted after a StorePatientRecordUpdated that moves the record to another province.
+     */
+    @TypeName("store-patient-record-province-changed")
+    record StorePatientRecordProvinceChanged(String pharmacyId, String fromProvince, String toProvince)
+            implements StorePatientRecordEvent {}
 
 }
\ No newline at end of file
@@ -6,6 +6,16 @@ public record StorePatientRecordId(String pharmacyId, String patientId) {
         return new StorePatientRecordId(record.pharmacyId(), record.patientId());
     }
 
+    /**
+     * Reads the id back from its string form. Pharmacy ids contain no dashes, so the first one separates
+     * the pharmacy from the patient.
+     */
+    public static StorePatientRecordId parse(String id) {
+        var dash = id.indexOf('-');
+        if (dash < 0) throw new IllegalArgumentException("Not a store patient record id: " + id);
+        return new StorePatientRecordId(id.substring(0, dash), id.substring(dash + 1));
+    }
+
     @Override
     public String toString() {
         return pharmacyId + "-" + patientId;
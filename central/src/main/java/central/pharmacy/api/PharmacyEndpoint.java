@@ -15,6 +15,8 @@ import akka.javasdk.http.HttpException;
 import akka.javasdk.http.HttpResponses;
 import central.pharmacy.domain.Pharmacy;
 import central.pharmacy.application.PharmacyEntity;
+import central.pharmacy.application.PharmacyRegistry;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,11 +26,24 @@ import org.slf4j.LoggerFactory;
 public class PharmacyEndpoint extends AbstractHttpEndpoint {
 
     private final ComponentClient componentClient;
+    private final PharmacyRegistry registry;
 
     private static final Logger logger = LoggerFactory.getLogger(PharmacyEndpoint.class);
 
-    public PharmacyEndpoint(ComponentClient componentClient) {
+    public PharmacyEndpoint(ComponentClient componentClient, PharmacyRegistry registry) {
         this.componentClient = componentClient;
+        this.registry = registry;
+    }
+
+    public record Pharmacies(List<Pharmacy> pharmacies) {}
+
+    /**
+     * All pharmacies, served from the registry's copy of the view, which is at most
+     * central.pharmacy-registry.ttl old.
+     */
+    @Get
+    public Pharmacies list() {
+        return new Pharmacies(registry.all());
     }
 
     @Get("/{pharmacy_id}")
@@ -53,6 +68,7 @@ public class PharmacyEndpoint extends AbstractHttpEndpoint {
                 .forEventSourcedEntity(id)
                 .method(PharmacyEntity::create)
                 .invoke(pharmacy);
+        registry.markKnown(id);
         return HttpResponses.ok();
     }
 
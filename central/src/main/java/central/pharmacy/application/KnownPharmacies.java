@@ -0,0 +1,45 @@
+package central.pharmacy.application;
+
+import akka.javasdk.client.ComponentClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ingest-time pharmacyId check. Answers from the {@link PharmacyRegistry} when it can and only asks
+ * the entity about ids the registry doesn't know, such as a pharmacy created since the registry last
+ * read the view. Ids the entity doesn't know either are remembered as unknown for a while.
+ */
+public class KnownPharmacies {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownPharmacies.class);
+
+    private final PharmacyRegistry registry;
+    private final ComponentClient componentClient;
+
+    public KnownPharmacies(PharmacyRegistry registry, ComponentClient componentClient) {
+        this.registry = registry;
+        this.componentClient = componentClient;
+    }
+
+    public boolean isKnown(String pharmacyId) {
+        if (pharmacyId == null || pharmacyId.isBlank()) return false;
+        if (registry.contains(pharmacyId)) return true;
+        if (registry.isRecentlyUnknown(pharmacyId)) return false;
+        try {
+            var pharmacy = componentClient
+                    .forEventSourcedEntity(pharmacyId)
+                    .method(PharmacyEntity::get)
+                    .invoke();
+            if (pharmacy.isPresent()) {
+                registry.markKnown(pharmacyId);
+                return true;
+            }
+        } catch (RuntimeException e) {
+            // An expunged pharmacy replies with an error, it is as unknown as one never registered.
+            logger.debug("Pharmacy id={} could not be read", pharmacyId, e);
+        }
+        registry.markUnknown(pharmacyId);
+        return false;
+    }
+
+}
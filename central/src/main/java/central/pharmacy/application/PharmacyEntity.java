@@ -6,6 +6,7 @@ import akka.javasdk.eventsourcedentity.EventSourcedEntity;
 import akka.javasdk.eventsourcedentity.EventSourcedEntityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import shared.metrics.RecoveryTracker;
 import central.pharmacy.domain.Pharmacy;
 import central.pharmacy.domain.PharmacyEvent;
 
@@ -17,6 +18,7 @@ public class PharmacyEntity
 
 
     private final String entityId;
+    private final RecoveryTracker recovery = new RecoveryTracker("pharmacy");
 
     private static final Logger logger = LoggerFactory.getLogger(PharmacyEntity.class);
 
@@ -30,6 +32,7 @@ public class PharmacyEntity
     }
 
     public Effect<Done> create(Pharmacy pharmacy) {
+        recovery.commandReceived(currentState());
         if (Optional.ofNullable(currentState()).isPresent()) {
             logger.info("Pharmacy id={} already exists.", entityId);
             return effects().error("Pharmacy already exists.");
@@ -44,6 +47,7 @@ public class PharmacyEntity
     }
 
     public ReadOnlyEffect<Optional<Pharmacy>> get() {
+        recovery.commandReceived(currentState());
         if (isDeleted()) {
             return effects().error("Pharmacy expunged.");
         }
@@ -51,6 +55,7 @@ public class PharmacyEntity
     }
 
     public Effect<Done> update(Pharmacy pharmacy) {
+        recovery.commandReceived(currentState());
         if (isDeleted()) {
             return effects().error("Pharmacy expunged.");
         }
@@ -62,6 +67,7 @@ public class PharmacyEntity
     }
 
     public Effect<Done> delete() {
+        recovery.commandReceived(currentState());
         if(currentState() == null)
             return effects().error("Pharmacy not found");
         else if(isDeleted())
@@ -73,6 +79,7 @@ public class PharmacyEntity
     }
 
     public Pharmacy applyEvent(PharmacyEvent event) {
+        recovery.eventApplied();
         return switch (event) {
             case PharmacyEvent.PharmacyCreated evt -> evt.pharmacy();
             case PharmacyEvent.PharmacyUpdated evt -> evt.pharmacy();
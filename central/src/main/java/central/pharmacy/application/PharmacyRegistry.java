@@ -0,0 +1,117 @@
+package central.pharmacy.application;
+
+import central.pharmacy.domain.Pharmacy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Short-lived copy of {@link PharmacyView}, so that listing pharmacies and checking a pharmacyId on ingest
+ * don't query the view on every request.
+ * <p>
+ * The whole copy is replaced from the view once it is older than the ttl, so every node sees pharmacies
+ * created, changed or deleted anywhere within about ttl plus the view's own lag. Callers that find an id
+ * missing should still confirm with the entity, see {@link KnownPharmacies}.
+ */
+public class PharmacyRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PharmacyRegistry.class);
+
+    private record Snapshot(Map<String, Pharmacy> pharmacies, Instant readAt) {}
+
+    private final Supplier<Collection<Pharmacy>> view;
+    private final Duration ttl;
+    private final Duration unknownTtl;
+    private final ConcurrentHashMap<String, Instant> unknown = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param view       reads all pharmacies from the view
+     * @param ttl        how long a copy of the view is used before it is read again
+     * @param unknownTtl how long an id confirmed as unknown is remembered, so that repeated traffic
+     *                   for it doesn't reach the entity every time
+     */
+    public PharmacyRegistry(Supplier<Collection<Pharmacy>> view, Duration ttl, Duration unknownTtl) {
+        this.view = view;
+        this.ttl = ttl;
+        this.unknownTtl = unknownTtl;
+    }
+
+    /**
+     * The current copy, read again once it has expired. While one caller reads the view the others keep
+     * using the expired copy; only the very first read makes callers wait.
+     */
+    private Snapshot current() {
+        var current = snapshot;
+        if (current != null && current.readAt().plus(ttl).isAfter(Instant.now())) return current;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) snapshot = read();
+                return snapshot;
+            }
+        }
+        if (!refreshing.compareAndSet(false, true)) return current;
+        try {
+            snapshot = read();
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh the pharmacy registry, keeping the copy from {}", current.readAt(), e);
+        } finally {
+            refreshing.set(false);
+        }
+        return snapshot;
+    }
+
+    private Snapshot read() {
+        var pharmacies = view.get().stream()
+                .collect(Collectors.toUnmodifiableMap(Pharmacy::pharmacyId, Function.identity(), (a, b) -> b));
+        return new Snapshot(pharmacies, Instant.now());
+    }
+
+    public void markUnknown(String pharmacyId) {
+        unknown.put(pharmacyId, Instant.now());
+    }
+
+    public boolean isRecentlyUnknown(String pharmacyId) {
+        var since = unknown.get(pharmacyId);
+        if (since == null) return false;
+        if (since.plus(unknownTtl).isBefore(Instant.now())) {
+            unknown.remove(pharmacyId, since);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Forgets that the id was unknown, for a pharmacy the entity has just confirmed.
+     */
+    public void markKnown(String pharmacyId) {
+        unknown.remove(pharmacyId);
+    }
+
+    public Optional<Pharmacy> get(String pharmacyId) {
+        return Optional.ofNullable(current().pharmacies().get(pharmacyId));
+    }
+
+    public boolean contains(String pharmacyId) {
+        return current().pharmacies().containsKey(pharmacyId);
+    }
+
+    public List<Pharmacy> all() {
+        return current().pharmacies().values().stream()
+                .sorted(Comparator.comparing(Pharmacy::pharmacyId))
+                .toList();
+    }
+
+}
@@ -0,0 +1,125 @@
+package central.pharmacy.application;
+
+import akka.javasdk.JsonSupport;
+import akka.javasdk.client.ComponentClient;
+import central.pharmacy.domain.Pharmacy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Brings the pharmacy entities in line with a stores file (see config/stores.json).
+ * <p>
+ * Pharmacies missing at central are created, pharmacies whose file version is newer are updated and
+ * everything else is left alone, so running it on every startup is cheap. At most parallelism
+ * pharmacies are in flight at a time.
+ */
+public class PharmacySeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PharmacySeeder.class);
+
+    public record StoresFile(List<Pharmacy> stores) {}
+
+    public record SeedResult(int created, int updated, int unchanged, int failed) {}
+
+    private enum Outcome { CREATED, UPDATED, UNCHANGED, FAILED }
+
+    private final ComponentClient componentClient;
+    private final int parallelism;
+
+    public PharmacySeeder(ComponentClient componentClient, int parallelism) {
+        this.componentClient = componentClient;
+        this.parallelism = parallelism;
+    }
+
+    public static StoresFile read(Path file) throws IOException {
+        return JsonSupport.getObjectMapper().readValue(Files.readAllBytes(file), StoresFile.class);
+    }
+
+    public CompletionStage<SeedResult> seed(List<Pharmacy> pharmacies) {
+        var pending = new ConcurrentLinkedQueue<>(pharmacies);
+        var counts = new AtomicInteger[Outcome.values().length];
+        for (int i = 0; i < counts.length; i++) counts[i] = new AtomicInteger();
+
+        var workers = IntStream.range(0, Math.max(1, parallelism))
+                .mapToObj(i -> drain(pending, counts))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(workers).thenApply(done -> new SeedResult(
+                counts[Outcome.CREATED.ordinal()].get(),
+                counts[Outcome.UPDATED.ordinal()].get(),
+                counts[Outcome.UNCHANGED.ordinal()].get(),
+                counts[Outcome.FAILED.ordinal()].get()));
+    }
+
+    /**
+     * One worker: takes the next pharmacy off the queue once the previous one is done.
+     */
+    private CompletableFuture<Void> drain(ConcurrentLinkedQueue<Pharmacy> pending, AtomicInteger[] counts) {
+        var next = pending.poll();
+        if (next == null) return CompletableFuture.completedFuture(null);
+        return reconcile(next)
+                .exceptionally(error -> {
+                    logger.warn("Could not seed pharmacy id={}", next.pharmacyId(), error);
+                    return Outcome.FAILED;
+                })
+                .thenCompose(outcome -> {
+                    counts[outcome.ordinal()].incrementAndGet();
+                    return drain(pending, counts);
+                })
+                .toCompletableFuture();
+    }
+
+    private CompletionStage<Outcome> reconcile(Pharmacy pharmacy) {
+        var id = pharmacy.pharmacyId();
+        return componentClient
+                .forEventSourcedEntity(id)
+                .method(PharmacyEntity::get)
+                .invokeAsync()
+                .thenCompose(existing -> {
+                    if (existing.isEmpty())
+                        return componentClient
+                                .forEventSourcedEntity(id)
+                                .method(PharmacyEntity::create)
+                                .invokeAsync(pharmacy)
+                                .thenApply(done -> Outcome.CREATED);
+                    if (isNewer(pharmacy.version(), existing.get().version()))
+                        return componentClient
+                                .forEventSourcedEntity(id)
+                                .method(PharmacyEntity::update)
+                                .invokeAsync(pharmacy)
+                                .thenApply(done -> Outcome.UPDATED);
+                    return CompletableFuture.completedFuture(Outcome.UNCHANGED);
+                });
+    }
+
+    /**
+     * Numeric versions are compared as numbers, anything else is newer when it differs.
+     */
+    static boolean isNewer(String candidate, String current) {
+        if (candidate == null || candidate.equals(current)) return false;
+        if (current == null) return true;
+        var a = asNumber(candidate);
+        var b = asNumber(current);
+        if (a.isPresent() && b.isPresent()) return a.get() > b.get();
+        return true;
+    }
+
+    private static Optional<Long> asNumber(String version) {
+        try {
+            return Optional.of(Long.parseLong(version.trim()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package central.pharmacy.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import central.pharmacy.domain.Pharmacy;
+import central.pharmacy.domain.PharmacyEvent;
+import java.util.List;
+
+@ComponentId("pharmacy-view")
+public class PharmacyView extends View {
+
+    public record Pharmacies(List<Pharmacy> pharmacies) {}
+
+    @Query(
+        """
+        SELECT * AS pharmacies FROM pharmacies
+        ORDER BY pharmacyId
+        """
+    )
+    public QueryEffect<Pharmacies> getAll() {
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT * AS pharmacies FROM pharmacies
+        WHERE province = :province
+        ORDER BY pharmacyId
+        """
+    )
+    public QueryEffect<Pharmacies> getByProvince(String province) {
+        return queryResult();
+    }
+
+    @Table("pharmacies")
+    @Consume.FromEventSourcedEntity(value = PharmacyEntity.class, ignoreUnknown = true)
+    public static class PharmacyTableUpdater extends TableUpdater<Pharmacy> {
+
+        public Effect<Pharmacy> onCreated(PharmacyEvent.PharmacyCreated event) {
+            return effects().updateRow(event.pharmacy());
+        }
+
+        public Effect<Pharmacy> onUpdated(PharmacyEvent.PharmacyUpdated event) {
+            return effects().updateRow(event.pharmacy());
+        }
+
+        public Effect<Pharmacy> onDeleted(PharmacyEvent.PharmacyDeleted event) {
+            return effects().deleteRow();
+        }
+    }
+}
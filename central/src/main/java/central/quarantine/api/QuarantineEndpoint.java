@@ -0,0 +1,121 @@
+package central.quarantine.api;
+
+import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCodes;
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Delete;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.annotations.http.Post;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import akka.javasdk.http.HttpException;
+import akka.javasdk.http.HttpResponses;
+import central.patient.application.StorePatientRecordEntity;
+import central.patient.domain.StorePatientRecordId;
+import central.pharmacy.application.KnownPharmacies;
+import central.pharmacy.application.PharmacyRegistry;
+import central.quarantine.application.QuarantineView;
+import central.quarantine.application.QuarantinedRecordEntity;
+import central.quarantine.domain.QuarantinedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.ALL))
+@HttpEndpoint("/quarantine")
+public class QuarantineEndpoint extends AbstractHttpEndpoint {
+
+    private final ComponentClient componentClient;
+    private final KnownPharmacies knownPharmacies;
+
+    private static final Logger logger = LoggerFactory.getLogger(QuarantineEndpoint.class);
+
+    public QuarantineEndpoint(ComponentClient componentClient, PharmacyRegistry pharmacyRegistry) {
+        this.componentClient = componentClient;
+        this.knownPharmacies = new KnownPharmacies(pharmacyRegistry, componentClient);
+    }
+
+    @Get
+    public QuarantineView.QuarantineEntries list() {
+        return componentClient
+                .forView()
+                .method(QuarantineView::getAll)
+                .invoke();
+    }
+
+    @Get("/{pharmacy_id}")
+    public QuarantineView.QuarantineEntries get(String pharmacy_id) {
+        return componentClient
+                .forView()
+                .method(QuarantineView::getByPharmacy)
+                .invoke(pharmacy_id);
+    }
+
+    @Get("/{pharmacy_id}/{patient_id}")
+    public QuarantinedRecord getRecord(String pharmacy_id, String patient_id) {
+        return componentClient
+                .forKeyValueEntity(new StorePatientRecordId(pharmacy_id, patient_id).toString())
+                .method(QuarantinedRecordEntity::get)
+                .invoke()
+                .orElseThrow(() -> HttpException.error(StatusCodes.NOT_FOUND, "No such quarantined record"));
+    }
+
+    /**
+     * Ingests the held records once their pharmacy has been registered, removing each from the
+     * quarantine as it is ingested. Records that already exist are updated instead.
+     * The records are found through {@link QuarantineView}, so one held moments ago may only be
+     * released by the next call.
+     */
+    @Post("/{pharmacy_id}/release")
+    public HttpResponse release(String pharmacy_id) {
+        if (!knownPharmacies.isKnown(pharmacy_id)) {
+            throw HttpException.error(StatusCodes.CONFLICT, "Pharmacy " + pharmacy_id + " is not registered");
+        }
+        var entries = get(pharmacy_id).entries();
+        logger.info("Releasing {} quarantined record(s) for pharmacy id={}", entries.size(), pharmacy_id);
+        for (var entry : entries) {
+            var id = new StorePatientRecordId(entry.pharmacyId(), entry.patientId()).toString();
+            var held = componentClient
+                    .forKeyValueEntity(id)
+                    .method(QuarantinedRecordEntity::get)
+                    .invoke();
+            if (held.isEmpty()) continue;
+            var record = held.get().record();
+            var existing = componentClient
+                    .forEventSourcedEntity(id)
+                    .method(StorePatientRecordEntity::getRecord)
+                    .invoke();
+            if (existing.isPresent()) {
+                componentClient
+                        .forEventSourcedEntity(id)
+                        .method(StorePatientRecordEntity::update)
+                        .invoke(record);
+            } else {
+                componentClient
+                        .forEventSourcedEntity(id)
+                        .method(StorePatientRecordEntity::create)
+                        .invoke(record);
+            }
+            discard(id);
+        }
+        return HttpResponses.ok();
+    }
+
+    @Delete("/{pharmacy_id}")
+    public HttpResponse discardAll(String pharmacy_id) {
+        var entries = get(pharmacy_id).entries();
+        logger.info("Discarding {} quarantined record(s) for pharmacy id={}", entries.size(), pharmacy_id);
+        for (var entry : entries) {
+            discard(new StorePatientRecordId(entry.pharmacyId(), entry.patientId()).toString());
+        }
+        return HttpResponses.ok();
+    }
+
+    private void discard(String id) {
+        componentClient
+                .forKeyValueEntity(id)
+                .method(QuarantinedRecordEntity::discard)
+                .invoke();
+    }
+
+}
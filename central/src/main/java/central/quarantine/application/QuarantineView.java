@@ -0,0 +1,71 @@
+package central.quarantine.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.DeleteHandler;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import central.quarantine.domain.QuarantinedRecord;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Which records are quarantined for which pharmacy. Rows only carry ids, the records themselves stay in
+ * {@link QuarantinedRecordEntity}.
+ */
+@ComponentId("quarantined-patient-record-view")
+public class QuarantineView extends View {
+
+    public record QuarantineEntry(String pharmacyId, String patientId, Instant heldAt) {}
+
+    public record QuarantineEntries(List<QuarantineEntry> entries) {}
+
+    public record Count(Long amount) {}
+
+    @Query(
+        """
+        SELECT * AS entries FROM quarantine
+        ORDER BY pharmacyId, patientId
+        """
+    )
+    public QueryEffect<QuarantineEntries> getAll() {
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT * AS entries FROM quarantine
+        WHERE pharmacyId = :pharmacyId
+        ORDER BY patientId
+        """
+    )
+    public QueryEffect<QuarantineEntries> getByPharmacy(String pharmacyId) {
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT COUNT(*) AS amount FROM quarantine
+        WHERE pharmacyId = :pharmacyId
+        """
+    )
+    public QueryEffect<Count> countByPharmacy(String pharmacyId) {
+        return queryResult();
+    }
+
+    @Table("quarantine")
+    @Consume.FromKeyValueEntity(QuarantinedRecordEntity.class)
+    public static class QuarantineUpdater extends TableUpdater<QuarantineEntry> {
+
+        public Effect<QuarantineEntry> onUpdate(QuarantinedRecord held) {
+            return effects().updateRow(new QuarantineEntry(held.pharmacyId(), held.record().patientId(), held.heldAt()));
+        }
+
+        @DeleteHandler
+        public Effect<QuarantineEntry> onDelete() {
+            return effects().deleteRow();
+        }
+    }
+}
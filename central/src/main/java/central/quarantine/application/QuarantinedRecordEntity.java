@@ -0,0 +1,51 @@
+package central.quarantine.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import central.patient.domain.StorePatientRecord;
+import central.quarantine.domain.QuarantinedRecord;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * One quarantined record, keyed like the store-patient-record it would become ({pharmacyId}-{patientId}).
+ * Holding a record for a pharmacy only writes that record, whatever else is held for the pharmacy;
+ * {@link QuarantineView} lists them.
+ */
+@ComponentId("quarantined-patient-record")
+public class QuarantinedRecordEntity extends KeyValueEntity<QuarantinedRecord> {
+
+    /**
+     * @param room whether the pharmacy's quarantine has room for another record; a record that is
+     *             already held is replaced either way
+     */
+    public record HoldRequest(StorePatientRecord record, boolean room) {}
+
+    @Override
+    public QuarantinedRecord emptyState() {
+        return null;
+    }
+
+    /**
+     * Replies whether the record is held, false when it was dropped for lack of room.
+     */
+    public Effect<Boolean> hold(HoldRequest request) {
+        if (currentState() == null && !request.room()) return effects().reply(false);
+        return effects()
+                .updateState(new QuarantinedRecord(request.record().pharmacyId(), request.record(), Instant.now()))
+                .thenReply(true);
+    }
+
+    public ReadOnlyEffect<Optional<QuarantinedRecord>> get() {
+        return effects().reply(Optional.ofNullable(currentState()));
+    }
+
+    /**
+     * Replies whether a record was held.
+     */
+    public Effect<Boolean> discard() {
+        if (currentState() == null) return effects().reply(false);
+        return effects().deleteEntity().thenReply(true);
+    }
+
+}
@@ -0,0 +1,10 @@
+package central.quarantine.domain;
+
+import central.patient.domain.StorePatientRecord;
+import java.time.Instant;
+
+/**
+ * A record received for a pharmacyId that central doesn't know, held until the pharmacy is registered
+ * or the record is discarded. heldAt is when the latest version of the record arrived.
+ */
+public record QuarantinedRecord(String pharmacyId, StorePatientRecord record, Instant heldAt) {}
@@ -47,6 +47,10 @@ class PharmacyAPI {
   }
 
   // Pharmacy API methods
+  async listPharmacies() {
+    return await this.request("/pharmacies");
+  }
+
   async getPharmacy(pharmacyId) {
     return await this.request(`/pharmacies/${pharmacyId}`);
   }
@@ -185,6 +189,12 @@ class UIManager {
   }
 
   bindButtons() {
+    document
+      .getElementById("loadPharmaciesBtn")
+      .addEventListener("click", () => {
+        this.handleListPharmacies();
+      });
+
     document
       .getElementById("deletePharmacyBtn")
       .addEventListener("click", () => {
@@ -273,6 +283,18 @@ class UIManager {
   }
 
   // Pharmacy handlers
+  async handleListPharmacies() {
+    this.showLoading("Loading pharmacies...");
+    try {
+      const result = await this.api.listPharmacies();
+      this.displayPharmacyList(result.pharmacies);
+    } catch (error) {
+      this.showAlert(`Error: ${error.message}`, "error");
+    } finally {
+      this.hideLoading();
+    }
+  }
+
   async handleGetPharmacy() {
     const pharmacyId = document.getElementById("getPharmacyId").value.trim();
     if (!pharmacyId) {
@@ -799,6 +821,23 @@ class UIManager {
   }
 
   // Display helpers
+  displayPharmacyList(pharmacies) {
+    const container = document.getElementById("pharmacyList");
+    if (pharmacies.length === 0) {
+      container.innerHTML = `<p>No pharmacies registered.</p>`;
+      return;
+    }
+    container.innerHTML = pharmacies
+      .map(
+        (pharmacy) => `
+            <div class="data-item">
+                <span class="data-label">${pharmacy.pharmacyId}</span>
+                <span class="data-value">${pharmacy.city}, ${pharmacy.province}</span>
+            </div>`,
+      )
+      .join("");
+  }
+
   displayPharmacy(pharmacy) {
     const container = document.getElementById("pharmacyData");
     container.innerHTML = `
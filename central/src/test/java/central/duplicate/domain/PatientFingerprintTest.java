@@ -0,0 +1,60 @@
+package central.duplicate.domain;
+
+import central.patient.domain.StorePatientRecord;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatientFingerprintTest {
+
+    private static StorePatientRecord record(String pharmacyId, String firstName, String healthNumber, String phone) {
+        return new StorePatientRecord(
+                pharmacyId,
+                "001",
+                firstName,
+                "Summers",
+                Optional.empty(),
+                "1985-07-14",
+                phone,
+                healthNumber,
+                Optional.empty(),
+                "123",
+                "Main Street",
+                "Vancouver",
+                "BC",
+                "V5K0A1",
+                "Canada",
+                "en",
+                true);
+    }
+
+    @Test
+    public void testBlockingKeys() {
+        var fingerprint = PatientFingerprint.of(record("101", "Alícia", "phn-123 4567", "555-123-4567"));
+        assertEquals("101-001", fingerprint.storePatientRecordId());
+        assertEquals(
+                List.of("hn_PHN1234567", "nd_alicia_summers_1985-07-14", "ph_5551234567"),
+                fingerprint.blockingKeys());
+    }
+
+    @Test
+    public void testShortPhoneIsNotABlock() {
+        var fingerprint = PatientFingerprint.of(record("101", "Alicia", "", "911"));
+        assertEquals(List.of("nd_alicia_summers_1985-07-14"), fingerprint.blockingKeys());
+    }
+
+    @Test
+    public void testMatchScore() {
+        var a = PatientFingerprint.of(record("101", "Alicia", "PHN1234567", "555-123-4567"));
+        var sameEverything = PatientFingerprint.of(record("202", "ALICIA", "phn1234567", "(555) 123 4567"));
+        var otherName = PatientFingerprint.of(record("202", "Bob", "PHN1234567", "555-000-0000"));
+        var nothingShared = PatientFingerprint.of(record("202", "Bob", "", "555-000-0000"));
+
+        assertEquals(1.0, a.matchScore(sameEverything), 0.0001);
+        assertEquals(0.7, a.matchScore(otherName), 0.0001);
+        assertTrue(a.matchScore(nothingShared) < 0.6);
+    }
+
+}
@@ -0,0 +1,35 @@
+package central.patient.api;
+
+import central.patient.domain.StorePatientRecord;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StorePatientRecordCsvTest {
+
+    @Test
+    public void testToLine() {
+        var record = new StorePatientRecord(
+                "101",
+                "001",
+                "Alicia",
+                "O\"Summers",
+                Optional.empty(),
+                "1985-07-14",
+                "555-123-4567",
+                "PHN1234567",
+                Optional.of("5B"),
+                "123",
+                "Main Street",
+                "Vancouver, BC",
+                "BC",
+                "V5K0A1",
+                "Canada",
+                "en",
+                true);
+        assertEquals(
+                "101,001,Alicia,\"O\"\"Summers\",,1985-07-14,555-123-4567,PHN1234567,5B,123,Main Street,\"Vancouver, BC\",BC,V5K0A1,Canada,en,true\n",
+                StorePatientRecordCsv.toLine(record));
+        assertEquals(17, StorePatientRecordCsv.HEADER.split(",").length);
+    }
+}
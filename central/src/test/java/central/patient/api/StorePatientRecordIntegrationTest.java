@@ -4,6 +4,8 @@ import akka.javasdk.http.StrictResponse;
 import akka.javasdk.testkit.TestKitSupport;
 import central.patient.domain.StorePatientRecord;
 import central.patient.domain.StorePatientRecordId;
+import central.pharmacy.domain.Pharmacy;
+import central.quarantine.application.QuarantineView;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.util.Optional;
 
@@ -21,8 +23,12 @@ public class StorePatientRecordIntegrationTest extends TestKitSupport {
     private final StorePatientRecord record2 = getRecord("001", "Alice");
 
     private StorePatientRecord getRecord(String patientId, String firstName) {
+        return getRecord("101", patientId, firstName);
+    }
+
+    private StorePatientRecord getRecord(String pharmacyId, String patientId, String firstName) {
         return new StorePatientRecord(
-                "101",
+                pharmacyId,
                 patientId,
                 firstName,
                 "Summers",
@@ -46,6 +52,7 @@ public class StorePatientRecordIntegrationTest extends TestKitSupport {
     public void patientRecordLifecycle() throws JsonProcessingException {
 
         var id = StorePatientRecordId.fromRecord(record);
+        registerPharmacy("101");
 
         {
             logger.info("patient record does not yet exist");
@@ -97,7 +104,7 @@ public class StorePatientRecordIntegrationTest extends TestKitSupport {
             logger.info("Can no longer get");
             assertEquals("400 Bad Request",  failedGet(id).status().toString());
             logger.info("or delete");
-            assertEquals("400 Bad Request",  delete(id).status().toString());
+            assertEquals("404 Not Found",  delete(id).status().toString());
             logger.info("or add");
             assertEquals("400 Bad Request",  add(record2).status().toString());
             logger.info("or update");
@@ -106,6 +113,59 @@ public class StorePatientRecordIntegrationTest extends TestKitSupport {
 
     }
 
+    @Test
+    public void unknownPharmacyIsQuarantined() {
+        var orphan = getRecord("999", "001", "Alicia");
+
+        assertEquals("202 Accepted", add(orphan).status().toString());
+        assertEquals("404 Not Found", failedGet(StorePatientRecordId.fromRecord(orphan)).status().toString());
+        awaitQuarantined("999", 1);
+
+        registerPharmacy("999");
+        assertEquals("200 OK", httpClient.POST("/quarantine/999/release").invoke().status().toString());
+        assertEquals(orphan, get(StorePatientRecordId.fromRecord(orphan)).body());
+    }
+
+    @Test
+    public void deleteOfQuarantinedRecordDiscardsIt() {
+        var orphan = getRecord("998", "001", "Alicia");
+        var id = StorePatientRecordId.fromRecord(orphan);
+
+        assertEquals("202 Accepted", add(orphan).status().toString());
+        awaitQuarantined("998", 1);
+        assertEquals("200 OK", delete(id).status().toString());
+        awaitQuarantined("998", 0);
+        // nothing left to delete, which the store treats as delivered
+        assertEquals("404 Not Found", delete(id).status().toString());
+    }
+
+    private void awaitQuarantined(String pharmacyId, int count) {
+        var deadline = System.nanoTime() + java.util.concurrent.TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            var held = httpClient.GET("/quarantine/" + pharmacyId)
+                    .responseBodyAs(QuarantineView.QuarantineEntries.class)
+                    .invoke()
+                    .body()
+                    .entries();
+            if (held.size() == count || System.nanoTime() > deadline) {
+                assertEquals(count, held.size());
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private void registerPharmacy(String pharmacyId) {
+        httpClient
+                .PUT("/pharmacies/pharmacy")
+                .withRequestBody(new Pharmacy(pharmacyId, "1 Main Street", "Vancouver", "BC", "V5K0A1", "604-555-0100", "1"))
+                .invoke();
+    }
+
     private StrictResponse<akka.util.ByteString> add(StorePatientRecord record) {
         return httpClient
                 .PUT("/patients/patient")
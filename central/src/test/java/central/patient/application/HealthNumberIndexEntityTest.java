@@ -0,0 +1,32 @@
+package central.patient.application;
+
+import akka.Done;
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import central.patient.domain.HealthNumber;
+import central.patient.domain.KeyHasher;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HealthNumberIndexEntityTest {
+
+    @Test
+    public void testAddAndRemove() {
+        var key = new KeyHasher("test").hash(HealthNumber.blockingKey("PHN1234567"));
+        var testKit = KeyValueEntityTestKit.of(key, HealthNumberIndexEntity::new);
+
+        assertEquals(Done.getInstance(), testKit.method(HealthNumberIndexEntity::add).invoke("101-001").getReply());
+        testKit.method(HealthNumberIndexEntity::add).invoke("202-007");
+        testKit.method(HealthNumberIndexEntity::add).invoke("101-001");
+        var index = testKit.method(HealthNumberIndexEntity::get).invoke().getReply();
+        assertEquals(key, index.healthNumberKey());
+        assertEquals(List.of("101-001", "202-007"), index.storePatientRecordIds());
+
+        testKit.method(HealthNumberIndexEntity::remove).invoke("101-001");
+        assertEquals(List.of("202-007"), testKit.getState().storePatientRecordIds());
+
+        testKit.method(HealthNumberIndexEntity::remove).invoke("202-007");
+        assertTrue(testKit.method(HealthNumberIndexEntity::get).invoke().getReply().storePatientRecordIds().isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package central.patient.application;
+
+import akka.Done;
+import akka.javasdk.testkit.EventSourcedTestKit;
+import central.patient.application.PharmacyPatientCountEntity.Count;
+import central.patient.domain.PharmacyPatientCountEvent.PatientCountChanged;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PharmacyPatientCountEntityTest {
+
+    @Test
+    public void testCountIsDeduplicatedPerRecord() {
+
+        var testKit = EventSourcedTestKit.of(PharmacyPatientCountEntity::new);
+
+        {
+            var result = testKit.method(PharmacyPatientCountEntity::count).invoke(new Count("101-001", "BC"));
+            assertEquals(Done.getInstance(), result.getReply());
+            assertEquals(new PatientCountChanged("101-001", null, "BC"), result.getNextEventOfType(PatientCountChanged.class));
+        }
+
+        {
+            // the same event consumed again
+            var result = testKit.method(PharmacyPatientCountEntity::count).invoke(new Count("101-001", "BC"));
+            assertEquals(Done.getInstance(), result.getReply());
+            assertTrue(result.getAllEvents().isEmpty());
+        }
+
+        {
+            var result = testKit.method(PharmacyPatientCountEntity::count).invoke(new Count("101-001", "AB"));
+            assertEquals(new PatientCountChanged("101-001", "BC", "AB"), result.getNextEventOfType(PatientCountChanged.class));
+        }
+
+        {
+            var result = testKit.method(PharmacyPatientCountEntity::count).invoke(new Count("101-001", null));
+            assertEquals(new PatientCountChanged("101-001", "AB", null), result.getNextEventOfType(PatientCountChanged.class));
+            assertTrue(testKit.getState().provinceByRecord().isEmpty());
+        }
+
+        {
+            var result = testKit.method(PharmacyPatientCountEntity::count).invoke(new Count("101-001", null));
+            assertTrue(result.getAllEvents().isEmpty());
+        }
+    }
+
+}
@@ -11,6 +11,7 @@ import central.patient.domain.StorePatientRecord;
 import central.patient.domain.StorePatientRecordEvent;
 import central.patient.domain.StorePatientRecordEvent.StorePatientRecordCreated;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -97,9 +98,40 @@ public class StorePatientRecordEntityTest {
             assertEquals(1, result2.getAllEvents().size());
             var deleted = result2.getNextEventOfType(StorePatientRecordEvent.StorePatientRecordDeleted.class);
             assertNotNull(deleted);
+            assertEquals(record, deleted.patientRecord());
         }
     }
 
+    @Test
+    public void testUpdateMovingProvince() {
+        var testKit = EventSourcedTestKit.of(StorePatientRecordEntity::new);
+        testKit.method(StorePatientRecordEntity::create).invoke(record);
+
+        var sameProvince = testKit.method(StorePatientRecordEntity::update).invoke(record2);
+        assertEquals(1, sameProvince.getAllEvents().size());
+
+        var moved = new StorePatientRecord(record2.pharmacyId(), record2.patientId(), record2.firstName(),
+                record2.lastName(), record2.prefName(), record2.dateOfBirth(), record2.phoneNumber(),
+                record2.provHealthNumber(), record2.unitNumber(), record2.streetNumber(), record2.streetName(),
+                "Toronto", "ON", "M5V2T6", record2.country(), record2.langPref(), record2.smsOptInPref());
+        var result = testKit.method(StorePatientRecordEntity::update).invoke(moved);
+        assertEquals(2, result.getAllEvents().size());
+        result.getNextEventOfType(StorePatientRecordEvent.StorePatientRecordUpdated.class);
+        var changed = result.getNextEventOfType(StorePatientRecordEvent.StorePatientRecordProvinceChanged.class);
+        assertEquals("BC", changed.fromProvince());
+        assertEquals("ON", changed.toProvince());
+    }
+
+    @Test
+    public void testExists() {
+        var testKit = EventSourcedTestKit.of(StorePatientRecordEntity::new);
+        assertFalse(testKit.method(StorePatientRecordEntity::exists).invoke().getReply());
+        testKit.method(StorePatientRecordEntity::create).invoke(record);
+        assertTrue(testKit.method(StorePatientRecordEntity::exists).invoke().getReply());
+        testKit.method(StorePatientRecordEntity::delete).invoke();
+        assertFalse(testKit.method(StorePatientRecordEntity::exists).invoke().getReply());
+    }
+
     @Test
     public void testDeleteEventThatDoesNotExist() {
         var testKit = EventSourcedTestKit.of(StorePatientRecordEntity::new);
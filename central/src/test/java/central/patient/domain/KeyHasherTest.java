@@ -0,0 +1,23 @@
+package central.patient.domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeyHasherTest {
+
+    @Test
+    public void testHash() {
+        var hasher = new KeyHasher("salt");
+        var key = hasher.hash("hn_PHN1234567");
+        assertTrue(key.startsWith("hn_"));
+        assertFalse(key.contains("PHN1234567"));
+        assertEquals(3 + 64, key.length());
+        assertEquals(key, hasher.hash("hn_PHN1234567"));
+        assertNotEquals(key, hasher.hash("hn_PHN1234568"));
+        assertNotEquals(key, new KeyHasher("other").hash("hn_PHN1234567"));
+    }
+
+}
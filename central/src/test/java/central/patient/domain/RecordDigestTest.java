@@ -0,0 +1,53 @@
+package central.patient.domain;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class RecordDigestTest {
+
+    private final StorePatientRecord record = new StorePatientRecord(
+            "101",
+            "001",
+            "Alicia",
+            "Summers",
+            Optional.of("Ally"),
+            "1985-07-14",
+            "555-123-4567",
+            "PHN1234567",
+            Optional.of("5B"),
+            "123",
+            "Main Street",
+            "Vancouver",
+            "BC",
+            "V5K0A1",
+            "Canada",
+            "en",
+            true);
+
+    /**
+     * Stores compute the same digest for the same record (pharmacy RecordDigestTest checks the same value).
+     */
+    @Test
+    public void testDigestIsStable() {
+        assertEquals("1b1ad928973006e7", RecordDigest.hex(RecordDigest.of(record)));
+        assertEquals(49, RecordDigest.bucketOf("001", 256));
+    }
+
+    @Test
+    public void testBucketsAreOrderIndependent() {
+        var other = new StorePatientRecord("101", "002", "Bob", "Summers", Optional.empty(), "1980-01-01",
+                "555-000-0000", "PHN7654321", Optional.empty(), "1", "King Street", "Toronto", "ON",
+                "M5V2T6", "Canada", "en", false);
+        var forwards = new long[1];
+        forwards[0] ^= RecordDigest.of(record);
+        forwards[0] ^= RecordDigest.of(other);
+        var backwards = new long[1];
+        backwards[0] ^= RecordDigest.of(other);
+        backwards[0] ^= RecordDigest.of(record);
+        assertEquals(RecordDigest.summarise("101", forwards), RecordDigest.summarise("101", backwards));
+        assertNotEquals(RecordDigest.of(record), RecordDigest.of(other));
+    }
+
+}
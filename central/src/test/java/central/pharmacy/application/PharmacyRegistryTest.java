@@ -0,0 +1,43 @@
+package central.pharmacy.application;
+
+import central.pharmacy.domain.Pharmacy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PharmacyRegistryTest {
+
+    private static Pharmacy pharmacy(String id) {
+        return new Pharmacy(id, "1 Main Street", "Vancouver", "BC", "V5K0A1", "604-555-0000", "1");
+    }
+
+    @Test
+    public void testReadsTheViewOncePerTtl() {
+        var reads = new AtomicInteger();
+        var registry = new PharmacyRegistry(() -> {
+            reads.incrementAndGet();
+            return List.of(pharmacy("202"), pharmacy("101"));
+        }, Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+        assertTrue(registry.contains("101"));
+        assertFalse(registry.contains("303"));
+        assertEquals(List.of("101", "202"), registry.all().stream().map(Pharmacy::pharmacyId).toList());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    public void testSeesDeletionsOnceExpired() {
+        var pharmacies = new ArrayList<>(List.of(pharmacy("101"), pharmacy("202")));
+        var registry = new PharmacyRegistry(() -> List.copyOf(pharmacies), Duration.ZERO, Duration.ofSeconds(30));
+
+        assertTrue(registry.contains("202"));
+        pharmacies.remove(1);
+        assertFalse(registry.contains("202"));
+    }
+
+}
@@ -0,0 +1,29 @@
+package central.pharmacy.application;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PharmacySeederTest {
+
+    @Test
+    public void testIsNewer() {
+        assertTrue(PharmacySeeder.isNewer("2", "1"));
+        assertTrue(PharmacySeeder.isNewer("10", "9"));
+        assertFalse(PharmacySeeder.isNewer("1", "1"));
+        assertFalse(PharmacySeeder.isNewer("1", "2"));
+        assertTrue(PharmacySeeder.isNewer("2024-06", "2024-05"));
+        assertTrue(PharmacySeeder.isNewer("1", null));
+        assertFalse(PharmacySeeder.isNewer(null, "1"));
+    }
+
+    @Test
+    public void testReadStoresFile() throws Exception {
+        var stores = PharmacySeeder.read(Path.of("../config/stores.json")).stores();
+        assertEquals("101", stores.get(0).pharmacyId());
+        assertEquals("1", stores.get(0).version());
+    }
+
+}
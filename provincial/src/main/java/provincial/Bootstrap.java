@@ -0,0 +1,33 @@
+package provincial;
+
+import akka.javasdk.DependencyProvider;
+import akka.javasdk.ServiceSetup;
+import akka.javasdk.annotations.Setup;
+import com.typesafe.config.Config;
+import provincial.patient.domain.Province;
+
+@Setup
+public class Bootstrap implements ServiceSetup {
+
+    private final Config config;
+
+    public Bootstrap(Config config) {
+        this.config = config;
+    }
+
+    @Override
+    public DependencyProvider createDependencyProvider() {
+        return new DependencyProvider() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> T getDependency(Class<T> clazz) {
+                if (clazz == Province.class) {
+                    return (T) new Province(
+                        config.getString("provincial.province")
+                    );
+                }
+                return null;
+            }
+        };
+    }
+}
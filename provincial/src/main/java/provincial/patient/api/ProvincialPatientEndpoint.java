@@ -0,0 +1,114 @@
+package provincial.patient.api;
+
+import akka.http.javadsl.model.StatusCodes;
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import akka.javasdk.http.HttpException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import provincial.patient.application.ProvincialPatientEntity;
+import provincial.patient.application.ProvincialPatientView;
+import provincial.patient.domain.HealthNumber;
+import provincial.patient.domain.Province;
+import provincial.patient.domain.StorePatientRecord;
+
+/**
+ * Province-scoped patient queries, answered from this service's own read models rather than central.
+ */
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.ALL))
+@HttpEndpoint("/province")
+public class ProvincialPatientEndpoint extends AbstractHttpEndpoint {
+
+    private final ComponentClient componentClient;
+    private final Province province;
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ProvincialPatientEndpoint.class
+    );
+
+    public ProvincialPatientEndpoint(ComponentClient componentClient, Province province) {
+        this.componentClient = componentClient;
+        this.province = province;
+    }
+
+    public record ProvinceInfo(String province, Long patients) {}
+
+    public record PharmacyPatientCount(String pharmacyId, Long patients) {}
+
+    @Get("/info")
+    public ProvinceInfo info() {
+        var count = componentClient
+            .forView()
+            .method(ProvincialPatientView::count)
+            .invoke()
+            .amount();
+        return new ProvinceInfo(province.code(), count);
+    }
+
+    @Get("/patients/{store_patient_id}")
+    public StorePatientRecord get(String store_patient_id) {
+        logger.info("Get provincial patient with id={}", store_patient_id);
+        var patient = componentClient
+            .forKeyValueEntity(store_patient_id)
+            .method(ProvincialPatientEntity::get)
+            .invoke();
+        if (patient.isPresent()) {
+            return patient.get().record();
+        } else {
+            throw HttpException.error(
+                StatusCodes.NOT_FOUND,
+                "No such PatientRecord"
+            );
+        }
+    }
+
+    @Get("/patients/health-number/{health_number}")
+    public List<StorePatientRecord> searchByHealthNumber(String health_number) {
+        return records(
+            componentClient
+                .forView()
+                .method(ProvincialPatientView::searchByHealthNumber)
+                .invoke(HealthNumber.normalise(health_number))
+        );
+    }
+
+    @Get("/patients/last-name/{last_name}")
+    public List<StorePatientRecord> searchByLastName(String last_name) {
+        return records(
+            componentClient
+                .forView()
+                .method(ProvincialPatientView::searchByLastName)
+                .invoke(last_name.trim())
+        );
+    }
+
+    @Get("/pharmacies/{pharmacy_id}/patients")
+    public List<StorePatientRecord> searchByPharmacy(String pharmacy_id) {
+        return records(
+            componentClient
+                .forView()
+                .method(ProvincialPatientView::searchByPharmacy)
+                .invoke(pharmacy_id)
+        );
+    }
+
+    @Get("/pharmacies/{pharmacy_id}/count")
+    public PharmacyPatientCount countByPharmacy(String pharmacy_id) {
+        var count = componentClient
+            .forView()
+            .method(ProvincialPatientView::countByPharmacy)
+            .invoke(pharmacy_id)
+            .amount();
+        return new PharmacyPatientCount(pharmacy_id, count);
+    }
+
+    private List<StorePatientRecord> records(
+        ProvincialPatientView.ProvincialPatients patients
+    ) {
+        return patients.patients().stream().map(p -> p.record()).toList();
+    }
+}
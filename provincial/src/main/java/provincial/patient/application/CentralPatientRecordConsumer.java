@@ -0,0 +1,61 @@
+package provincial.patient.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import provincial.patient.domain.Province;
+import provincial.patient.domain.StorePatientRecordPublicEvent;
+
+/**
+ * Keeps this province's patients in sync with central. Records of other provinces are dropped here,
+ * so every read model in this service only ever holds the province's own partition.
+ * A changed record that is no longer in the province (the patient moved) is removed.
+ */
+@ComponentId("central-patient-record-consumer")
+@Consume.FromServiceStream(service = "central", id = "store-patient-records", ignoreUnknown = true)
+public class CentralPatientRecordConsumer extends Consumer {
+
+    private final ComponentClient componentClient;
+    private final Province province;
+
+    public CentralPatientRecordConsumer(ComponentClient componentClient, Province province) {
+        this.componentClient = componentClient;
+        this.province = province;
+    }
+
+    public Effect onAdded(StorePatientRecordPublicEvent.StorePatientRecordAdded event) {
+        var record = event.patientRecord();
+        if (!province.matches(record.province())) return effects().ignore();
+        componentClient
+                .forKeyValueEntity(record.storePatientRecordId())
+                .method(ProvincialPatientEntity::upsert)
+                .invoke(record);
+        return effects().done();
+    }
+
+    public Effect onChanged(StorePatientRecordPublicEvent.StorePatientRecordChanged event) {
+        var record = event.patientRecord();
+        if (province.matches(record.province())) {
+            componentClient
+                    .forKeyValueEntity(record.storePatientRecordId())
+                    .method(ProvincialPatientEntity::upsert)
+                    .invoke(record);
+        } else {
+            remove(record.storePatientRecordId());
+        }
+        return effects().done();
+    }
+
+    public Effect onRemoved(StorePatientRecordPublicEvent.StorePatientRecordRemoved event) {
+        remove(event.storePatientRecordId());
+        return effects().done();
+    }
+
+    private void remove(String storePatientRecordId) {
+        componentClient
+                .forKeyValueEntity(storePatientRecordId)
+                .method(ProvincialPatientEntity::remove)
+                .invoke();
+    }
+}
@@ -0,0 +1,52 @@
+package provincial.patient.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import akka.javasdk.keyvalueentity.KeyValueEntityContext;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import provincial.patient.domain.ProvincialPatient;
+import provincial.patient.domain.StorePatientRecord;
+
+/**
+ * This province's copy of a central store patient record, keyed by the central id (pharmacyId-patientId).
+ * Central is the source of truth, so the latest published state simply replaces the current one.
+ */
+@ComponentId("provincial-patient")
+public class ProvincialPatientEntity extends KeyValueEntity<ProvincialPatient> {
+
+    private final String entityId;
+
+    private static final Logger logger = LoggerFactory.getLogger(ProvincialPatientEntity.class);
+
+    public ProvincialPatientEntity(KeyValueEntityContext context) {
+        this.entityId = context.entityId();
+    }
+
+    @Override
+    public ProvincialPatient emptyState() {
+        return null;
+    }
+
+    public Effect<Done> upsert(StorePatientRecord record) {
+        return effects()
+                .updateState(ProvincialPatient.of(record))
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<Done> remove() {
+        if (currentState() == null)
+            return effects().reply(Done.getInstance());
+        logger.info("Removing provincial patient id={}", entityId);
+        return effects()
+                .deleteEntity()
+                .thenReply(Done.getInstance());
+    }
+
+    public ReadOnlyEffect<Optional<ProvincialPatient>> get() {
+        return effects().reply(Optional.ofNullable(currentState()));
+    }
+
+}
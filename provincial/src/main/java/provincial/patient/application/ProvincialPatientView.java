@@ -0,0 +1,94 @@
+package provincial.patient.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.DeleteHandler;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import provincial.patient.domain.ProvincialPatient;
+
+@ComponentId("provincial-patient-view")
+public class ProvincialPatientView extends View {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ProvincialPatientView.class
+    );
+
+    public record ProvincialPatients(List<ProvincialPatient> patients) {}
+
+    public record Count(Long amount) {}
+
+    @Query(
+        """
+        SELECT * as patients FROM provincialPatients
+        WHERE healthNumberKey = :healthNumberKey
+        """
+    )
+    public QueryEffect<ProvincialPatients> searchByHealthNumber(
+        String healthNumberKey
+    ) {
+        logger.info("Searching patients by health number key: {}", healthNumberKey);
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT * as patients FROM provincialPatients
+        WHERE pharmacyId = :pharmacyId
+        """
+    )
+    public QueryEffect<ProvincialPatients> searchByPharmacy(String pharmacyId) {
+        logger.info("Searching patients by pharmacy: {}", pharmacyId);
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT * as patients FROM provincialPatients
+        WHERE record.lastName = :lastName
+        """
+    )
+    public QueryEffect<ProvincialPatients> searchByLastName(String lastName) {
+        logger.info("Searching patients by last name: {}", lastName);
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT COUNT(*) as amount FROM provincialPatients
+        WHERE pharmacyId = :pharmacyId
+        """
+    )
+    public QueryEffect<Count> countByPharmacy(String pharmacyId) {
+        return queryResult();
+    }
+
+    @Query(
+        """
+        SELECT COUNT(*) as amount FROM provincialPatients
+        """
+    )
+    public QueryEffect<Count> count() {
+        return queryResult();
+    }
+
+    @Table("provincialPatients")
+    @Consume.FromKeyValueEntity(ProvincialPatientEntity.class)
+    public static class ProvincialPatientUpdater
+        extends TableUpdater<ProvincialPatient> {
+
+        public Effect<ProvincialPatient> onUpdate(ProvincialPatient patient) {
+            return effects().updateRow(patient);
+        }
+
+        @DeleteHandler
+        public Effect<ProvincialPatient> onDelete() {
+            return effects().deleteRow();
+        }
+    }
+}
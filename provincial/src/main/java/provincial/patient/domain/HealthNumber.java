@@ -0,0 +1,18 @@
+package provincial.patient.domain;
+
+import java.util.Locale;
+
+public final class HealthNumber {
+
+    private HealthNumber() {}
+
+    /**
+     * Lookup key for a provincial health number: upper case, letters and digits only,
+     * so that "phn 123-456" and "PHN123456" find the same patient.
+     */
+    public static String normalise(String healthNumber) {
+        if (healthNumber == null) return "";
+        return healthNumber.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+    }
+
+}
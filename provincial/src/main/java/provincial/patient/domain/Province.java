@@ -0,0 +1,9 @@
+package provincial.patient.domain;
+
+public record Province(String code) {
+
+    public boolean matches(String province) {
+        return province != null && code.equalsIgnoreCase(province.trim());
+    }
+
+}
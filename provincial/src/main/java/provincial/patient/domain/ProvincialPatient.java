@@ -0,0 +1,21 @@
+package provincial.patient.domain;
+
+/**
+ * A patient record held by this province, with the fields it is queried by lifted to the top level.
+ */
+public record ProvincialPatient(
+        String storePatientRecordId,
+        String pharmacyId,
+        String healthNumberKey,
+        StorePatientRecord record
+) {
+
+    public static ProvincialPatient of(StorePatientRecord record) {
+        return new ProvincialPatient(
+                record.storePatientRecordId(),
+                record.pharmacyId(),
+                HealthNumber.normalise(record.provHealthNumber()),
+                record);
+    }
+
+}
@@ -0,0 +1,35 @@
+package provincial.patient.domain;
+
+import java.util.Optional;
+
+/**
+ * A patient record as published by central.
+ */
+public record StorePatientRecord(
+        String pharmacyId,
+        String patientId,
+        String firstName,
+        String lastName,
+        Optional<String> prefName,
+        String dateOfBirth,
+        String phoneNumber,
+        String provHealthNumber,
+        Optional<String> unitNumber,
+        String streetNumber,
+        String streetName,
+        String city,
+        String province,
+        String postalCode,
+        String country,
+        String langPref,
+        boolean smsOptInPref
+) {
+
+    /**
+     * The id central uses for this record.
+     */
+    public String storePatientRecordId() {
+        return pharmacyId + "-" + patientId;
+    }
+
+}
@@ -0,0 +1,20 @@
+package provincial.patient.domain;
+
+import akka.javasdk.annotations.TypeName;
+
+/**
+ * Events consumed from central's store-patient-records service stream.
+ * Type names must match the ones central publishes.
+ */
+public sealed interface StorePatientRecordPublicEvent {
+
+    @TypeName("store-patient-record-added")
+    record StorePatientRecordAdded(StorePatientRecord patientRecord) implements StorePatientRecordPublicEvent {}
+
+    @TypeName("store-patient-record-changed")
+    record StorePatientRecordChanged(StorePatientRecord patientRecord) implements StorePatientRecordPublicEvent {}
+
+    @TypeName("store-patient-record-removed")
+    record StorePatientRecordRemoved(String storePatientRecordId) implements StorePatientRecordPublicEvent {}
+
+}
@@ -0,0 +1,45 @@
+package provincial.patient.application;
+
+import akka.Done;
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import provincial.patient.domain.StorePatientRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProvincialPatientEntityTest {
+
+    private final StorePatientRecord record = new StorePatientRecord(
+            "101",
+            "001",
+            "Alicia",
+            "Summers",
+            Optional.of("Ally"),
+            "1985-07-14",
+            "555-123-4567",
+            "phn 123-4567",
+            Optional.of("5B"),
+            "123",
+            "Main Street",
+            "Hamilton",
+            "ON",
+            "L8P2Z7",
+            "Canada",
+            "en",
+            true);
+
+    @Test
+    public void testUpsertAndRemove() {
+        var testKit = KeyValueEntityTestKit.of("101-001", ProvincialPatientEntity::new);
+
+        var result = testKit.method(ProvincialPatientEntity::upsert).invoke(record);
+        assertEquals(Done.getInstance(), result.getReply());
+        var patient = testKit.getState();
+        assertEquals("101-001", patient.storePatientRecordId());
+        assertEquals("PHN1234567", patient.healthNumberKey());
+
+        testKit.method(ProvincialPatientEntity::remove).invoke();
+        assertTrue(testKit.method(ProvincialPatientEntity::get).invoke().getReply().isEmpty());
+    }
+}
@@ -0,0 +1,25 @@
+package shared.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Counter implements MetricsRegistry.Metric {
+
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    public void render(StringBuilder sb, String name, String labels) {
+        MetricsRegistry.line(sb, name, labels, value.sum());
+    }
+}
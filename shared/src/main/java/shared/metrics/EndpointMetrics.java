@@ -0,0 +1,90 @@
+package shared.metrics;
+
+import akka.http.javadsl.model.HttpEntities;
+import akka.http.javadsl.model.HttpResponse;
+import akka.javasdk.http.HttpException;
+import akka.javasdk.http.RequestContext;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-route metrics for HTTP endpoint methods. The SDK has no hook around endpoint methods, so each
+ * route method delegates to the method doing the work:
+ * {@code return EndpointMetrics.timed("GET /patients/{patientId}", requestContext(), () -> doGet(patientId));}.
+ * Routes are labelled with their path template, which keeps the number of series bounded.
+ * <p>
+ * A streamed response is only finished when its stream completes, so for those the request stays in
+ * flight, and its latency and response size are recorded, until the last chunk has been sent. Objects
+ * returned for the SDK to serialize have no size yet, so their response size isn't recorded.
+ */
+public final class EndpointMetrics {
+
+    private EndpointMetrics() {}
+
+    public static <T> T timed(String route, RequestContext context, Supplier<T> handler) {
+        var metrics = MetricsRegistry.global();
+        context.requestHeader("Content-Length")
+            .map(header -> Long.parseLong(header.value()))
+            .ifPresent(bytes -> metrics
+                .histogram("http_request_bytes", "Size of HTTP request bodies", Histogram.BYTES, "route", route)
+                .observe(bytes));
+
+        var inFlight = metrics.gauge("http_requests_in_flight", "HTTP requests being handled", "route", route);
+        inFlight.increment();
+        var start = System.nanoTime();
+        T result;
+        try {
+            result = handler.get();
+        } catch (HttpException e) {
+            finish(route, start, "rejected");
+            throw e;
+        } catch (RuntimeException | Error e) {
+            finish(route, start, "error");
+            throw e;
+        }
+        if (result instanceof HttpResponse response && !response.entity().isStrict()) {
+            @SuppressWarnings("unchecked")
+            var streamed = (T) timedStream(route, start, response);
+            return streamed;
+        }
+        if (result instanceof HttpResponse response) {
+            response.entity().getContentLengthOption().ifPresent(bytes -> responseBytes(route).observe(bytes));
+        }
+        finish(route, start, "ok");
+        return result;
+    }
+
+    private static HttpResponse timedStream(String route, long start, HttpResponse response) {
+        var entity = response.entity();
+        var sent = new AtomicLong();
+        var body = entity.getDataBytes()
+            .map(chunk -> {
+                sent.addAndGet(chunk.size());
+                return chunk;
+            })
+            .watchTermination((mat, done) -> {
+                done.whenComplete((ignore, error) -> {
+                    responseBytes(route).observe(sent.get());
+                    finish(route, start, error == null ? "ok" : "error");
+                });
+                return mat;
+            });
+        return response.withEntity(HttpEntities.createChunked(entity.getContentType(), body));
+    }
+
+    private static Histogram responseBytes(String route) {
+        return MetricsRegistry.global()
+            .histogram("http_response_bytes", "Size of HTTP response bodies", Histogram.BYTES, "route", route);
+    }
+
+    private static void finish(String route, long start, String outcome) {
+        var metrics = MetricsRegistry.global();
+        metrics.gauge("http_requests_in_flight", "HTTP requests being handled", "route", route).decrement();
+        metrics
+            .timer("http_request_seconds", "Time spent handling HTTP requests, until the response is sent", "route", route)
+            .observeNanos(System.nanoTime() - start);
+        metrics
+            .counter("http_requests_total", "HTTP requests by outcome: ok, rejected (an HttpException) or error", "route", route, "outcome", outcome)
+            .increment();
+    }
+}
@@ -0,0 +1,29 @@
+package shared.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class Gauge implements MetricsRegistry.Metric {
+
+    private final AtomicLong value = new AtomicLong();
+
+    public void set(long newValue) {
+        value.set(newValue);
+    }
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void decrement() {
+        value.decrementAndGet();
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    @Override
+    public void render(StringBuilder sb, String name, String labels) {
+        MetricsRegistry.line(sb, name, labels, value.get());
+    }
+}
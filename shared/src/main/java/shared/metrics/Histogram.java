@@ -0,0 +1,88 @@
+package shared.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram. Recording is lock-free, quantiles are estimated by linear
+ * interpolation within the bucket that contains them.
+ */
+public final class Histogram implements MetricsRegistry.Metric {
+
+    public static final double[] LATENCY_SECONDS = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    public static final double[] COUNTS = {
+        0, 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000
+    };
+
+    public static final double[] BYTES = {
+        256, 512, 1024, 2048, 4096, 16384, 65536, 262144, 1048576
+    };
+
+    private final double[] buckets;
+    private final LongAdder[] counts;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] buckets) {
+        this.buckets = buckets.clone();
+        this.counts = new LongAdder[buckets.length + 1];
+        for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+    }
+
+    public void observe(double value) {
+        int i = 0;
+        while (i < buckets.length && value > buckets[i]) i++;
+        counts[i].increment();
+        count.increment();
+        sum.add(value);
+    }
+
+    public void observeNanos(long nanos) {
+        observe(nanos / 1_000_000_000.0);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Estimated value at quantile q (0..1), or 0 when nothing has been recorded.
+     */
+    public double quantile(double q) {
+        long total = count.sum();
+        if (total == 0) return 0;
+        double rank = q * total;
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            long inBucket = counts[i].sum();
+            if (inBucket > 0 && cumulative + inBucket >= rank) {
+                if (i == buckets.length) return buckets[buckets.length - 1];
+                double lower = i == 0 ? 0 : buckets[i - 1];
+                return lower + (buckets[i] - lower) * ((rank - cumulative) / inBucket);
+            }
+            cumulative += inBucket;
+        }
+        return buckets[buckets.length - 1];
+    }
+
+    @Override
+    public void render(StringBuilder sb, String name, String labels) {
+        var prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += counts[i].sum();
+            MetricsRegistry.line(sb, name + "_bucket", prefix + "le=\"" + MetricsRegistry.format(buckets[i]) + "\"", cumulative);
+        }
+        cumulative += counts[buckets.length].sum();
+        MetricsRegistry.line(sb, name + "_bucket", prefix + "le=\"+Inf\"", cumulative);
+        MetricsRegistry.line(sb, name + "_sum", labels, sum.sum());
+        MetricsRegistry.line(sb, name + "_count", labels, cumulative);
+    }
+}
@@ -0,0 +1,98 @@
+package shared.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Process-wide registry of counters, gauges and histograms, rendered in the Prometheus text format.
+ * Entities and views are instantiated by the runtime and can't be handed dependencies, so the registry
+ * is a static singleton rather than something provided through the Bootstrap.
+ * Labels are passed as alternating name/value pairs, e.g. {@code counter("x", "help", "entity", "patient-record")}.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    private record Family(String name, String help, String type, ConcurrentMap<String, Metric> series) {}
+
+    private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) metric(name, help, "counter", labels, l -> new Counter());
+    }
+
+    public Gauge gauge(String name, String help, String... labels) {
+        return (Gauge) metric(name, help, "gauge", labels, l -> new Gauge());
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return (Histogram) metric(name, help, "histogram", labels, l -> new Histogram(buckets));
+    }
+
+    /**
+     * Latency histogram in seconds, using the default latency buckets.
+     */
+    public Histogram timer(String name, String help, String... labels) {
+        return histogram(name, help, Histogram.LATENCY_SECONDS, labels);
+    }
+
+    private Metric metric(String name, String help, String type, String[] labels, Function<String, Metric> create) {
+        var family = families.computeIfAbsent(name, n -> new Family(n, help, type, new ConcurrentHashMap<>()));
+        if (!family.type().equals(type))
+            throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type());
+        return family.series().computeIfAbsent(renderLabels(labels), create);
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length % 2 != 0)
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        if (labels.length == 0) return "";
+        var sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Renders every registered metric in the Prometheus text exposition format (version 0.0.4).
+     */
+    public String scrape() {
+        var sb = new StringBuilder();
+        Map<String, Family> sorted = new TreeMap<>(families);
+        for (var family : sorted.values()) {
+            sb.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+            sb.append("# TYPE ").append(family.name()).append(' ').append(family.type()).append('\n');
+            new TreeMap<>(family.series()).forEach((labels, metric) -> metric.render(sb, family.name(), labels));
+        }
+        return sb.toString();
+    }
+
+    interface Metric {
+        void render(StringBuilder sb, String name, String labels);
+    }
+
+    static void line(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (!labels.isEmpty()) sb.append('{').append(labels).append('}');
+        sb.append(' ').append(format(value)).append('\n');
+    }
+
+    static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) return "+Inf";
+        if (value == Math.rint(value) && !Double.isInfinite(value)) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+}
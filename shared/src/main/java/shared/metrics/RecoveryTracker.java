@@ -0,0 +1,65 @@
+package shared.metrics;
+
+import akka.javasdk.JsonSupport;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how an event sourced entity instance was recovered.
+ * When an entity is loaded the runtime restores the latest snapshot (if any) and replays the events persisted
+ * after it through {@code applyEvent} before the first command is handled. Every event applied before that
+ * first command therefore counts as replayed, and the time from the first replayed event to the first command
+ * is the replay latency. Instances may be constructed well before they are used, so construction isn't timed.
+ * <p>
+ * Serializing the state to measure its size costs about as much as a snapshot, so it is only done for
+ * one in {@link #STATE_SIZE_SAMPLE_RATE} recoveries.
+ */
+public final class RecoveryTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecoveryTracker.class);
+
+    static final int STATE_SIZE_SAMPLE_RATE = 100;
+
+    private final String entityType;
+    private long firstEventAt;
+    private long replayedEvents;
+    private boolean recovered;
+
+    public RecoveryTracker(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public void eventApplied() {
+        if (recovered) return;
+        if (replayedEvents == 0) firstEventAt = System.nanoTime();
+        replayedEvents++;
+    }
+
+    /**
+     * To be called at the start of every command handler; only the first call records anything.
+     */
+    public void commandReceived(Object state) {
+        if (recovered) return;
+        recovered = true;
+        var metrics = MetricsRegistry.global();
+        metrics
+            .histogram("entity_recovery_replayed_events", "Events replayed when loading an entity", Histogram.COUNTS, "entity", entityType)
+            .observe(replayedEvents);
+        if (replayedEvents > 0) {
+            metrics
+                .timer("entity_recovery_seconds", "Time from the first replayed event to the entity's first command", "entity", entityType)
+                .observeNanos(System.nanoTime() - firstEventAt);
+        }
+        if (state != null && ThreadLocalRandom.current().nextInt(STATE_SIZE_SAMPLE_RATE) == 0) {
+            try {
+                var bytes = JsonSupport.getObjectMapper().writeValueAsBytes(state);
+                metrics
+                    .histogram("entity_state_bytes", "Serialized size of recovered entity state, sampled", Histogram.BYTES, "entity", entityType)
+                    .observe(bytes.length);
+            } catch (Exception e) {
+                logger.debug("Could not measure state size for entity type {}", entityType, e);
+            }
+        }
+    }
+}
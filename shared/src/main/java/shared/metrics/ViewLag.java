@@ -0,0 +1,191 @@
+package shared.metrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How far each view is behind the events it consumes. Table updaters call {@link #applied} for every event,
+ * with the time the event was persisted; the lag is the time between that and the update being applied.
+ * <p>
+ * A view only learns its lag when it applies an event, so the last lag seen would be reported forever once
+ * the view goes quiet. A view that has applied nothing for idleAfter is taken to have caught up.
+ * <p>
+ * A view applying events more than {@link #CATCH_UP_LAG} old is catching up: being rebuilt from the start of
+ * the journal after its table changed, or working through a burst it fell behind on. The catch-up ends when
+ * the lag drops back under the limit, or when the view goes idle. Its duration and event count are kept, so a
+ * full rebuild shows how long a rebuild of that view takes.
+ * <p>
+ * Like MetricsRegistry this is a static singleton, since views can't be handed dependencies.
+ */
+public final class ViewLag {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewLag.class);
+
+    static final Duration CATCH_UP_LAG = Duration.ofMinutes(1);
+    static final Duration RATE_WINDOW = Duration.ofSeconds(10);
+
+    private static final ViewLag GLOBAL = new ViewLag(Clock.systemUTC());
+
+    public static ViewLag global() {
+        return GLOBAL;
+    }
+
+    /**
+     * finished is empty while the catch-up is still running; seconds is then the time spent so far.
+     */
+    public record CatchUp(Instant started, Optional<Instant> finished, long events, long seconds) {}
+
+    public record ViewStatus(
+        String view,
+        long updates,
+        double updatesPerSecond,
+        long lagSeconds,
+        Optional<Instant> lastApplied,
+        Optional<CatchUp> catchUp
+    ) {}
+
+    private final Clock clock;
+    private final ConcurrentMap<String, Tracker> views = new ConcurrentHashMap<>();
+
+    ViewLag(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void applied(String view, Optional<ZonedDateTime> eventTime) {
+        var now = clock.instant();
+        var lag = eventTime.map(time -> Duration.between(time.toInstant(), now));
+        var metrics = MetricsRegistry.global();
+        metrics
+            .counter("view_updates_total", "Events applied by views", "view", view)
+            .increment();
+        lag.ifPresent(l -> metrics
+            .gauge("view_lag_seconds", "Age of the last event applied by the view", "view", view)
+            .set(l.toSeconds()));
+        tracker(view).applied(now, lag).ifPresent(catchUp -> caughtUp(view, catchUp));
+    }
+
+    public Duration lag(String view, Duration idleAfter) {
+        return status(view, tracker(view), idleAfter).map(s -> Duration.ofSeconds(s.lagSeconds())).orElse(Duration.ZERO);
+    }
+
+    /**
+     * Every view that has applied an event since this process started.
+     */
+    public List<ViewStatus> status(Duration idleAfter) {
+        return views.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .flatMap(e -> status(e.getKey(), e.getValue(), idleAfter).stream())
+            .toList();
+    }
+
+    private Optional<ViewStatus> status(String view, Tracker tracker, Duration idleAfter) {
+        var now = clock.instant();
+        tracker.settle(now, idleAfter).ifPresent(catchUp -> caughtUp(view, catchUp));
+        return tracker.status(view, now, idleAfter);
+    }
+
+    private Tracker tracker(String view) {
+        return views.computeIfAbsent(view, v -> new Tracker());
+    }
+
+    private static void caughtUp(String view, CatchUp catchUp) {
+        var metrics = MetricsRegistry.global();
+        metrics
+            .counter("view_catchups_total", "Times a view fell behind by more than a minute and caught up", "view", view)
+            .increment();
+        metrics
+            .gauge("view_last_catchup_seconds", "Duration of the view's last catch-up, e.g. a full rebuild", "view", view)
+            .set(catchUp.seconds());
+        metrics
+            .gauge("view_last_catchup_events", "Events applied during the view's last catch-up", "view", view)
+            .set(catchUp.events());
+        logger.info("View {} caught up: {} events in {}s", view, catchUp.events(), catchUp.seconds());
+    }
+
+    private static final class Tracker {
+
+        private long updates;
+        private Instant lastApplied;
+        private Duration lastLag = Duration.ZERO;
+        private Instant windowStart;
+        private long windowUpdates;
+        private double updatesPerSecond;
+        private Instant catchUpStart;
+        private long catchUpEvents;
+        private CatchUp lastCatchUp;
+
+        /**
+         * Returns the catch-up this event completed, if any.
+         */
+        synchronized Optional<CatchUp> applied(Instant now, Optional<Duration> lag) {
+            updates++;
+            lastApplied = now;
+            if (windowStart == null) windowStart = now;
+            var elapsed = Duration.between(windowStart, now);
+            if (elapsed.compareTo(RATE_WINDOW) >= 0) {
+                updatesPerSecond = windowUpdates * 1000.0 / elapsed.toMillis();
+                windowStart = now;
+                windowUpdates = 0;
+            }
+            windowUpdates++;
+
+            if (lag.isEmpty()) return Optional.empty();
+            lastLag = lag.get();
+            var behind = lastLag.compareTo(CATCH_UP_LAG) > 0;
+            if (catchUpStart == null) {
+                if (behind) {
+                    catchUpStart = now;
+                    catchUpEvents = 1;
+                }
+                return Optional.empty();
+            }
+            catchUpEvents++;
+            return behind ? Optional.empty() : Optional.of(finishCatchUp(now));
+        }
+
+        /**
+         * Ends a catch-up the view went idle during, e.g. a rebuild whose newest event is itself old.
+         */
+        synchronized Optional<CatchUp> settle(Instant now, Duration idleAfter) {
+            if (catchUpStart == null || !idle(now, idleAfter)) return Optional.empty();
+            return Optional.of(finishCatchUp(lastApplied));
+        }
+
+        synchronized Optional<ViewStatus> status(String view, Instant now, Duration idleAfter) {
+            if (lastApplied == null) return Optional.empty();
+            var idle = idle(now, idleAfter);
+            var catchUp = catchUpStart == null
+                ? Optional.ofNullable(lastCatchUp)
+                : Optional.of(new CatchUp(catchUpStart, Optional.empty(), catchUpEvents,
+                    Duration.between(catchUpStart, now).toSeconds()));
+            return Optional.of(new ViewStatus(
+                view,
+                updates,
+                Duration.between(windowStart, now).compareTo(RATE_WINDOW.multipliedBy(2)) > 0 ? 0 : updatesPerSecond,
+                idle ? 0 : lastLag.toSeconds(),
+                Optional.of(lastApplied),
+                catchUp
+            ));
+        }
+
+        private boolean idle(Instant now, Duration idleAfter) {
+            return lastApplied.plus(idleAfter).isBefore(now);
+        }
+
+        private CatchUp finishCatchUp(Instant finished) {
+            lastCatchUp = new CatchUp(catchUpStart, Optional.of(finished), catchUpEvents,
+                Duration.between(catchUpStart, finished).toSeconds());
+            catchUpStart = null;
+            return lastCatchUp;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package shared.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testScrape() {
+        var registry = new MetricsRegistry();
+        registry.counter("deliveries_total", "Deliveries", "status", "200").add(3);
+        registry.gauge("backlog", "Backlog").set(7);
+        var histogram = registry.histogram("lag_seconds", "Lag", new double[] {1, 2});
+        histogram.observe(0.5);
+        histogram.observe(1.5);
+        histogram.observe(5);
+
+        var text = registry.scrape();
+        assertTrue(text.contains("# TYPE deliveries_total counter\n"));
+        assertTrue(text.contains("deliveries_total{status=\"200\"} 3\n"));
+        assertTrue(text.contains("backlog 7\n"));
+        assertTrue(text.contains("lag_seconds_bucket{le=\"1\"} 1\n"));
+        assertTrue(text.contains("lag_seconds_bucket{le=\"2\"} 2\n"));
+        assertTrue(text.contains("lag_seconds_bucket{le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("lag_seconds_count 3\n"));
+    }
+
+    @Test
+    public void testQuantile() {
+        var registry = new MetricsRegistry();
+        var histogram = registry.histogram("h", "h", new double[] {10, 20});
+        for (int i = 0; i < 10; i++) histogram.observe(5);
+        assertEquals(5.0, histogram.quantile(0.5), 0.001);
+        assertEquals(0.0, registry.histogram("empty", "e", new double[] {1}).quantile(0.99));
+    }
+}
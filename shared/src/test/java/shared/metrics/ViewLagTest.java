@@ -0,0 +1,94 @@
+package shared.metrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ViewLagTest {
+
+    private static final Duration IDLE_AFTER = Duration.ofMinutes(1);
+
+    private final TestClock clock = new TestClock(Instant.parse("2025-01-01T12:00:00Z"));
+    private final ViewLag viewLag = new ViewLag(clock);
+
+    @Test
+    public void testLag() {
+        viewLag.applied("v", eventAt(clock.instant().minusSeconds(5)));
+        assertEquals(Duration.ofSeconds(5), viewLag.lag("v", IDLE_AFTER));
+
+        clock.advance(IDLE_AFTER.plusSeconds(1));
+        assertEquals(Duration.ZERO, viewLag.lag("v", IDLE_AFTER));
+        assertEquals(Duration.ZERO, viewLag.lag("unknown", IDLE_AFTER));
+    }
+
+    @Test
+    public void testRebuildIsReportedAsCatchUp() {
+        var journalStart = clock.instant().minus(Duration.ofDays(1));
+        for (int i = 0; i < 100; i++) {
+            viewLag.applied("v", eventAt(journalStart.plusSeconds(i)));
+            clock.advance(Duration.ofMillis(100));
+        }
+        var running = viewLag.status(IDLE_AFTER).get(0).catchUp().orElseThrow();
+        assertTrue(running.finished().isEmpty());
+        assertEquals(100, running.events());
+
+        viewLag.applied("v", eventAt(clock.instant()));
+        var status = viewLag.status(IDLE_AFTER).get(0);
+        var finished = status.catchUp().orElseThrow();
+        assertEquals(Optional.of(clock.instant()), finished.finished());
+        assertEquals(101, finished.events());
+        assertEquals(10, finished.seconds());
+        assertEquals(0, status.lagSeconds());
+        assertEquals(101, status.updates());
+        assertEquals(10.0, status.updatesPerSecond(), 0.001);
+    }
+
+    @Test
+    public void testCatchUpEndsWhenViewGoesIdle() {
+        viewLag.applied("v", eventAt(clock.instant().minus(Duration.ofHours(1))));
+        clock.advance(IDLE_AFTER.plusSeconds(1));
+
+        var status = viewLag.status(IDLE_AFTER).get(0);
+        assertTrue(status.catchUp().orElseThrow().finished().isPresent());
+        assertEquals(0, status.lagSeconds());
+    }
+
+    private static Optional<ZonedDateTime> eventAt(Instant time) {
+        return Optional.of(time.atZone(ZoneOffset.UTC));
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant now;
+
+        TestClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -3,21 +3,80 @@ package pharmacy;
 import akka.javasdk.DependencyProvider;
 import akka.javasdk.ServiceSetup;
 import akka.javasdk.annotations.Setup;
+import akka.javasdk.client.ComponentClient;
 import akka.javasdk.http.HttpClientProvider;
+import akka.javasdk.timer.TimerScheduler;
+import akka.stream.Materializer;
 import com.typesafe.config.Config;
+import java.time.Duration;
 import pharmacy.application.central.client.CentralClient;
 import pharmacy.application.central.client.CentralClientImpl;
+import pharmacy.application.central.delivery.PatientRecordDeliveryRetention;
+import pharmacy.application.central.lookup.CentralPatientLookup;
+import pharmacy.application.central.reconciliation.PatientRecordReconciliation;
+import pharmacy.application.central.restore.PatientRecordRestorer;
+import pharmacy.application.logging.HotPathLogger;
 import pharmacy.domain.PharmacyId;
 
 @Setup
 public class Bootstrap implements ServiceSetup {
 
     private final HttpClientProvider httpClientProvider;
+    private final ComponentClient componentClient;
+    private final TimerScheduler timerScheduler;
     private final Config config;
+    private final PatientRecordRestorer restorer;
+    private final CentralPatientLookup centralLookup;
 
-    public Bootstrap(Config config, HttpClientProvider httpClientProvider) {
+    public Bootstrap(
+        Config config,
+        HttpClientProvider httpClientProvider,
+        ComponentClient componentClient,
+        TimerScheduler timerScheduler,
+        Materializer materializer
+    ) {
         this.httpClientProvider = httpClientProvider;
+        this.componentClient = componentClient;
+        this.timerScheduler = timerScheduler;
         this.config = config;
+        HotPathLogger.configure(config.getConfig("store.logging"));
+        this.restorer = new PatientRecordRestorer(
+            componentClient,
+            new CentralClientImpl(config, httpClientProvider),
+            materializer,
+            pharmacyId(),
+            config
+        );
+        // one instance, so every request shares the same lookup cache
+        this.centralLookup = new CentralPatientLookup(
+            new CentralClientImpl(config, httpClientProvider),
+            config
+        );
+    }
+
+    private PharmacyId pharmacyId() {
+        return new PharmacyId(config.getString("store.pharmacy-id"));
+    }
+
+    @Override
+    public void onStartup() {
+        if (config.getBoolean("store.restore.on-startup")) {
+            restorer.start();
+        }
+        if (config.getBoolean("store.delivery-retention.enabled")) {
+            PatientRecordDeliveryRetention.schedule(
+                timerScheduler,
+                componentClient,
+                Duration.ofMinutes(1)
+            );
+        }
+        if (config.getBoolean("store.reconciliation.enabled")) {
+            PatientRecordReconciliation.schedule(
+                timerScheduler,
+                componentClient,
+                Duration.ofMinutes(5)
+            );
+        }
     }
 
     @Override
@@ -33,9 +92,13 @@ public class Bootstrap implements ServiceSetup {
                     );
                 }
                 if (clazz == PharmacyId.class) {
-                    return (T) new PharmacyId(
-                        config.getString("store.pharmacy-id")
-                    );
+                    return (T) pharmacyId();
+                }
+                if (clazz == PatientRecordRestorer.class) {
+                    return (T) restorer;
+                }
+                if (clazz == CentralPatientLookup.class) {
+                    return (T) centralLookup;
                 }
                 return null;
             }
@@ -0,0 +1,205 @@
+package pharmacy.api;
+
+import akka.http.javadsl.model.ContentTypes;
+import akka.http.javadsl.model.HttpEntities;
+import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCodes;
+import akka.javasdk.JsonSupport;
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.annotations.http.Post;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.HttpException;
+import akka.javasdk.http.HttpResponses;
+import akka.stream.Materializer;
+import com.typesafe.config.Config;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import pharmacy.application.central.client.CentralClient;
+import pharmacy.application.central.client.CentralReachability;
+import pharmacy.application.central.delivery.PatientRecordDeliveryView;
+import pharmacy.application.central.reconciliation.PatientRecordReconciler;
+import pharmacy.application.central.restore.PatientRecordRestorer;
+import shared.metrics.MetricsRegistry;
+import shared.metrics.ViewLag;
+import pharmacy.domain.PharmacyId;
+
+/**
+ * Operational endpoints, not used by the UI. Metrics, health and the other read-only routes are open so
+ * that probes and scrapers can reach them; the routes that change data only accept calls from services,
+ * so operators reach them through a service proxy rather than from the internet.
+ */
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
+@HttpEndpoint("/admin")
+public class AdminEndpoint {
+
+    private final ComponentClient componentClient;
+    private final PatientRecordReconciler reconciler;
+    private final PatientRecordRestorer restorer;
+    private final Config health;
+
+    /**
+     * problems make the store unready; degraded lists the same checks while they can't be held against
+     * the store, see {@link #ready()}.
+     */
+    public record Readiness(
+        boolean ready,
+        List<String> problems,
+        List<String> degraded,
+        CentralReachability.Status central,
+        long outstandingDeliveries,
+        long consumerLagSeconds
+    ) {}
+
+    public AdminEndpoint(
+        ComponentClient componentClient,
+        CentralClient centralClient,
+        Materializer materializer,
+        PharmacyId pharmacyId,
+        PatientRecordRestorer restorer,
+        Config config
+    ) {
+        this.componentClient = componentClient;
+        this.restorer = restorer;
+        this.health = config.getConfig("store.health");
+        this.reconciler = PatientRecordReconciler.create(
+            componentClient,
+            centralClient,
+            restorer,
+            materializer,
+            pharmacyId,
+            config
+        );
+    }
+
+    /**
+     * Every metric in the Prometheus text format. The delivery backlog is read from the delivery view at
+     * scrape time, see {@link #outstandingDeliveries()}.
+     */
+    @Get("/metrics")
+    public HttpResponse metrics() {
+        MetricsRegistry.global()
+            .gauge("delivery_backlog_events", "Patient record events not yet delivered to central")
+            .set(outstandingDeliveries());
+        return HttpResponse.create()
+            .withStatus(StatusCodes.OK)
+            .withEntity(
+                HttpEntities.create(
+                    ContentTypes.TEXT_PLAIN_UTF8,
+                    MetricsRegistry.global().scrape()
+                )
+            );
+    }
+
+    /**
+     * Liveness: the service is up and serving requests.
+     */
+    @Get("/health/live")
+    public HttpResponse live() {
+        return HttpResponses.ok();
+    }
+
+    /**
+     * Readiness, answered with 503 when the delivery backlog or the deliverer's lag exceed the
+     * store.health thresholds. Central being unreachable is reported but only makes the store unready
+     * with require-central, since patient records are kept locally and delivered once central is back.
+     * <p>
+     * While central is unreachable, and for central-recovery-grace after it last failed, the backlog
+     * and lag grow on every store at once and say nothing about this instance. They are then reported
+     * as degraded without failing readiness, so that an outage of central doesn't take every store
+     * out of the load balancer.
+     */
+    @Get("/health/ready")
+    public HttpResponse ready() {
+        var problems = new ArrayList<String>();
+        var degraded = new ArrayList<String>();
+        var central = CentralReachability.global().status(health.getInt("central-failure-threshold"));
+        if (central.state() == CentralReachability.State.UNREACHABLE && health.getBoolean("require-central"))
+            problems.add("central is unreachable");
+        var recovered = central.state() != CentralReachability.State.UNREACHABLE
+            && central.lastFailure()
+                .map(failure -> failure.plus(health.getDuration("central-recovery-grace")).isBefore(Instant.now()))
+                .orElse(true);
+        var deliveryProblems = recovered ? problems : degraded;
+
+        var outstanding = outstandingDeliveries();
+        if (outstanding > health.getLong("max-outstanding-deliveries"))
+            deliveryProblems.add(outstanding + " deliveries outstanding");
+
+        // The gauge keeps the age of the last event handled, which is stale once the backlog is drained.
+        var lag = outstanding > 0
+            ? MetricsRegistry.global()
+                .gauge("delivery_consumer_lag_seconds", "Age of the event the deliverer is currently handling")
+                .get()
+            : 0;
+        if (lag > health.getDuration("max-consumer-lag").toSeconds())
+            deliveryProblems.add("deliveries are " + lag + "s behind");
+
+        var readiness = new Readiness(problems.isEmpty(), problems, degraded, central, outstanding, lag);
+        return HttpResponse.create()
+            .withStatus(readiness.ready() ? StatusCodes.OK : StatusCodes.SERVICE_UNAVAILABLE)
+            .withEntity(
+                HttpEntities.create(
+                    ContentTypes.APPLICATION_JSON,
+                    JsonSupport.encodeToAkkaByteString(readiness)
+                )
+            );
+    }
+
+    /**
+     * Lag, update rate and last catch-up (e.g. a full rebuild) of each view, see {@link ViewLag}.
+     * Views that haven't applied an event since the service started are not listed.
+     */
+    @Get("/views")
+    public List<ViewLag.ViewStatus> views() {
+        return ViewLag.global().status(health.getDuration("view-idle-after"));
+    }
+
+    /**
+     * Patient record events not yet delivered to central. Read from the delivery view rather than kept
+     * in-process, since it has to survive restarts.
+     */
+    private long outstandingDeliveries() {
+        var required = componentClient
+            .forView()
+            .method(PatientRecordDeliveryView::getRequiredDeliveryCount)
+            .invoke()
+            .amount();
+        var finished = componentClient
+            .forView()
+            .method(PatientRecordDeliveryView::getFinishedDeliveryCount)
+            .invoke()
+            .amount();
+        return required - finished;
+    }
+
+    /**
+     * Runs a reconciliation with central now, instead of waiting for the next scheduled run.
+     */
+    @Acl(allow = @Acl.Matcher(service = "*"))
+    @Post("/reconcile")
+    public PatientRecordReconciler.ReconciliationResult reconcile() {
+        return reconciler.reconcile()
+            .orElseThrow(() -> HttpException.error(StatusCodes.CONFLICT, "A restore is running"));
+    }
+
+    /**
+     * Starts rebuilding this store's patient records from central, see {@link PatientRecordRestorer}.
+     * Progress is available from GET /admin/restore.
+     */
+    @Acl(allow = @Acl.Matcher(service = "*"))
+    @Post("/restore")
+    public HttpResponse restore() {
+        if (!restorer.start()) {
+            throw HttpException.error(StatusCodes.CONFLICT, "A restore is already running");
+        }
+        return HttpResponses.accepted();
+    }
+
+    @Get("/restore")
+    public PatientRecordRestorer.RestoreStatus restoreStatus() {
+        return restorer.status();
+    }
+}
@@ -0,0 +1,111 @@
+package pharmacy.api;
+
+import akka.javasdk.JsonSupport;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import pharmacy.api.PatientRecordEndpoint.PatientCreateRequest;
+
+/**
+ * Parses bulk import payloads into {@link PatientCreateRequest}s.
+ * NDJSON has one create request object per line. CSV has a header row naming the
+ * {@link PatientCreateRequest} fields, in any order; empty optional columns are treated as absent.
+ * Blank lines are skipped in both formats. Line numbers are 1-based and refer to the payload.
+ */
+public final class PatientImportParser {
+
+    public record ImportRow(
+        int line,
+        Optional<PatientCreateRequest> request,
+        Optional<String> error
+    ) {
+        static ImportRow parsed(int line, PatientCreateRequest request) {
+            return new ImportRow(line, Optional.of(request), Optional.empty());
+        }
+
+        static ImportRow failed(int line, String error) {
+            return new ImportRow(line, Optional.empty(), Optional.of(error));
+        }
+    }
+
+    private PatientImportParser() {}
+
+    public static List<ImportRow> parseNdjson(String body) {
+        var rows = new ArrayList<ImportRow>();
+        var lines = body.split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            var line = lines[i].trim();
+            if (line.isEmpty()) continue;
+            try {
+                var request = JsonSupport.getObjectMapper().readValue(line, PatientCreateRequest.class);
+                rows.add(ImportRow.parsed(i + 1, request));
+            } catch (Exception e) {
+                rows.add(ImportRow.failed(i + 1, "Invalid JSON: " + e.getMessage()));
+            }
+        }
+        return rows;
+    }
+
+    public static List<ImportRow> parseCsv(String body) {
+        var rows = new ArrayList<ImportRow>();
+        var lines = body.split("\r?\n");
+        int headerIndex = 0;
+        while (headerIndex < lines.length && lines[headerIndex].isBlank()) headerIndex++;
+        if (headerIndex == lines.length) return rows;
+        var header = splitCsvLine(lines[headerIndex]);
+
+        var mapper = JsonSupport.getObjectMapper();
+        for (int i = headerIndex + 1; i < lines.length; i++) {
+            if (lines[i].isBlank()) continue;
+            var values = splitCsvLine(lines[i]);
+            if (values.size() != header.size()) {
+                rows.add(ImportRow.failed(i + 1, "Expected " + header.size() + " columns but found " + values.size()));
+                continue;
+            }
+            ObjectNode node = mapper.createObjectNode();
+            for (int c = 0; c < header.size(); c++) {
+                var value = values.get(c);
+                if (!value.isEmpty()) node.put(header.get(c).trim(), value);
+            }
+            try {
+                rows.add(ImportRow.parsed(i + 1, mapper.treeToValue(node, PatientCreateRequest.class)));
+            } catch (Exception e) {
+                rows.add(ImportRow.failed(i + 1, "Invalid row: " + e.getMessage()));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Splits one CSV line, honouring double quoted values and "" escapes.
+     * Quoted values spanning several lines are not supported.
+     */
+    static List<String> splitCsvLine(String line) {
+        var values = new ArrayList<String>();
+        var current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    current.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+}
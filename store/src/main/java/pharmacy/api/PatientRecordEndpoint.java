@@ -1,7 +1,14 @@
 package pharmacy.api;
 
+import akka.NotUsed;
+import akka.http.javadsl.model.ContentType;
+import akka.http.javadsl.model.HttpCharsets;
+import akka.http.javadsl.model.HttpEntities;
+import akka.http.javadsl.model.HttpEntity;
 import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.MediaTypes;
 import akka.http.javadsl.model.StatusCodes;
+import akka.javasdk.JsonSupport;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.http.Delete;
 import akka.javasdk.annotations.http.Get;
@@ -9,39 +16,79 @@ import akka.javasdk.annotations.http.HttpEndpoint;
 import akka.javasdk.annotations.http.Post;
 import akka.javasdk.annotations.http.Put;
 import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
 import akka.javasdk.http.HttpException;
 import akka.javasdk.http.HttpResponses;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.typesafe.config.Config;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pharmacy.application.PatientRecordEntity;
 import pharmacy.application.PatientRecordEntity.PatientMergeRequest;
 import pharmacy.application.PatientSearchView;
+import pharmacy.application.central.client.domain.StorePatientRecord;
 import pharmacy.application.central.delivery.PatientRecordDeliverySummary;
 import pharmacy.application.central.delivery.PatientRecordDeliveryView;
+import pharmacy.application.central.lookup.CentralPatientLookup;
+import pharmacy.application.logging.HotPathLogger;
+import shared.metrics.EndpointMetrics;
 import pharmacy.domain.PatientRecord;
 import pharmacy.domain.PharmacyId;
 
 @Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
 @HttpEndpoint("/patients")
-public class PatientRecordEndpoint {
+public class PatientRecordEndpoint extends AbstractHttpEndpoint {
 
     private final ComponentClient componentClient;
     private final PharmacyId pharmacyId;
+    private final CentralPatientLookup centralLookup;
+    private final int importParallelism;
+    private final int importMaxRows;
+    private final String importIdSalt;
 
     private static final Logger logger = LoggerFactory.getLogger(
         PatientRecordEndpoint.class
     );
 
+    private static final HotPathLogger log = HotPathLogger.of(
+        PatientRecordEndpoint.class,
+        "api"
+    );
+
+    private static final ContentType NDJSON =
+        MediaTypes.applicationWithFixedCharset(
+            "x-ndjson",
+            HttpCharsets.UTF_8
+        ).toContentType();
+
     public PatientRecordEndpoint(
         ComponentClient componentClient,
-        PharmacyId pharmacyId
+        PharmacyId pharmacyId,
+        CentralPatientLookup centralLookup,
+        Config config
     ) {
         this.componentClient = componentClient;
         this.pharmacyId = pharmacyId;
+        this.centralLookup = centralLookup;
+        this.importParallelism = config.getInt("store.bulk-import.parallelism");
+        this.importMaxRows = config.getInt("store.bulk-import.max-rows");
+        this.importIdSalt = config.getString("store.bulk-import.id-salt");
     }
 
+    /**
+     * patientId is only read by POST /patients/import, see {@link #bulkImport(HttpEntity.Strict)}.
+     */
     public record PatientCreateRequest(
         String firstName,
         String lastName,
@@ -57,12 +104,17 @@ public class PatientRecordEndpoint {
         String postalCode,
         String country,
         String langPref,
-        boolean smsOptInPref
+        boolean smsOptInPref,
+        Optional<String> patientId
     ) {}
 
     @Get("/{patientId}")
     public PatientRecord get(String patientId) {
-        logger.info("Get patient id={}", patientId);
+        return EndpointMetrics.timed("GET /patients/{patientId}", requestContext(), () -> doGet(patientId));
+    }
+
+    private PatientRecord doGet(String patientId) {
+        log.info("Get patient", "patientId", patientId);
         var record = componentClient
             .forEventSourcedEntity(patientId)
             .method(PatientRecordEntity::getRecord)
@@ -76,8 +128,12 @@ public class PatientRecordEndpoint {
 
     @Put("/patient")
     public String create(PatientCreateRequest request) {
-        var patientId = java.util.UUID.randomUUID().toString();
-        logger.info("Handling create patient request, id={}", patientId);
+        return EndpointMetrics.timed("PUT /patients/patient", requestContext(), () -> doCreate(request));
+    }
+
+    private String doCreate(PatientCreateRequest request) {
+        var patientId = UUID.randomUUID().toString();
+        log.info("Create patient", "patientId", patientId);
         var record = getPatientRecordFromCreateRequest(request, patientId);
         componentClient
             .forEventSourcedEntity(patientId)
@@ -86,8 +142,160 @@ public class PatientRecordEndpoint {
         return patientId;
     }
 
+    /**
+     * created is false for a row whose patient the store already holds, which is what a retried import
+     * reports for the rows that made it the first time; error is only set for rows that failed.
+     */
+    public record ImportRowResult(
+        int line,
+        boolean created,
+        Optional<String> patientId,
+        Optional<String> error
+    ) {}
+
+    public record ImportSummary(
+        int rows,
+        int created,
+        int existing,
+        int failed,
+        long durationMillis
+    ) {}
+
+    private record ImportCandidate(
+        int line,
+        Optional<PatientRecord> record,
+        Optional<String> error
+    ) {}
+
+    /**
+     * Bulk create for store onboarding. The body is NDJSON (one {@link PatientCreateRequest} per line)
+     * or, with content type text/csv, CSV with a header row naming the request fields.
+     * Rows are validated in parallel up front, then created with at most store.bulk-import.parallelism
+     * entity calls in flight. The response is streamed as NDJSON: one {@link ImportRowResult} per row in
+     * completion order, so clients can follow progress, followed by a final {@link ImportSummary} line.
+     * <p>
+     * A row's patient id is its patientId field when given, and otherwise derived from the pharmacy and the
+     * row's health number (or, without one, its name, date of birth and phone number), salted with
+     * store.bulk-import.id-salt so that the id doesn't give the identifiers away. Importing the same
+     * rows again therefore creates nothing new, so a failed or interrupted import can simply be retried.
+     * <p>
+     * The body is read into memory before parsing; akka.http.server.parsing.max-content-length in
+     * application.conf is sized so that store.bulk-import.max-rows rows fit.
+     */
+    @Post("/import")
+    public HttpResponse bulkImport(HttpEntity.Strict body) {
+        return EndpointMetrics.timed("POST /patients/import", requestContext(), () -> doBulkImport(body));
+    }
+
+    private HttpResponse doBulkImport(HttpEntity.Strict body) {
+        var payload = body.getData().utf8String();
+        var csv = body.getContentType().mediaType().equals(MediaTypes.TEXT_CSV);
+        var rows = csv
+            ? PatientImportParser.parseCsv(payload)
+            : PatientImportParser.parseNdjson(payload);
+        if (rows.size() > importMaxRows) {
+            throw HttpException.badRequest(
+                "Import is limited to " + importMaxRows + " rows per request"
+            );
+        }
+        logger.info("Bulk import of {} rows, format={}", rows.size(), csv ? "csv" : "ndjson");
+
+        // validation needs no entity calls, so it runs across all cores before anything is created
+        var candidates = rows
+            .parallelStream()
+            .map(row -> row.error().isPresent()
+                ? new ImportCandidate(row.line(), Optional.empty(), row.error())
+                : toImportCandidate(row.line(), row.request().get()))
+            .toList();
+
+        var start = System.nanoTime();
+        var created = new AtomicInteger();
+        var existing = new AtomicInteger();
+        var failed = new AtomicInteger();
+        Source<ByteString, NotUsed> results = Source
+            .from(candidates)
+            .mapAsyncUnordered(importParallelism, this::importCandidate)
+            .map(result -> {
+                (result.created() ? created : result.error().isPresent() ? failed : existing).incrementAndGet();
+                return toJsonLine(result);
+            });
+        Source<ByteString, NotUsed> summary = Source.lazySingle(() -> {
+            var durationMillis = (System.nanoTime() - start) / 1_000_000;
+            logger.info(
+                "Bulk import finished, created={}, existing={}, failed={}, durationMillis={}",
+                created.get(),
+                existing.get(),
+                failed.get(),
+                durationMillis
+            );
+            return toJsonLine(
+                new ImportSummary(candidates.size(), created.get(), existing.get(), failed.get(), durationMillis)
+            );
+        });
+
+        return HttpResponse.create()
+            .withStatus(StatusCodes.OK)
+            .withEntity(HttpEntities.createChunked(NDJSON, results.concat(summary)));
+    }
+
+    private ImportCandidate toImportCandidate(int line, PatientCreateRequest request) {
+        var record = getPatientRecordFromCreateRequest(request, importPatientId(request));
+        var error = record.validationError();
+        return error.isPresent()
+            ? new ImportCandidate(line, Optional.empty(), error)
+            : new ImportCandidate(line, Optional.of(record), Optional.empty());
+    }
+
+    /**
+     * The patient id of an imported row, stable across retries of the same import.
+     */
+    private String importPatientId(PatientCreateRequest request) {
+        if (request.patientId().isPresent() && !request.patientId().get().isBlank()) {
+            return request.patientId().get().trim();
+        }
+        var key = request.provHealthNumber() != null && !request.provHealthNumber().isBlank()
+            ? "hn|" + request.provHealthNumber().replaceAll("[^0-9A-Za-z]", "").toUpperCase()
+            : "person|" + Stream.of(request.lastName(), request.firstName(), request.dateOfBirth(), request.phoneNumber())
+                .map(value -> value == null ? "" : value.trim().toLowerCase())
+                .collect(Collectors.joining("|"));
+        return UUID.nameUUIDFromBytes(
+            (importIdSalt + "|" + pharmacyId.id() + "|" + key).getBytes(StandardCharsets.UTF_8)
+        ).toString();
+    }
+
+    private CompletionStage<ImportRowResult> importCandidate(ImportCandidate candidate) {
+        if (candidate.record().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                new ImportRowResult(candidate.line(), false, Optional.empty(), candidate.error())
+            );
+        }
+        var record = candidate.record().get();
+        return componentClient
+            .forEventSourcedEntity(record.patientId())
+            .method(PatientRecordEntity::createIfAbsent)
+            .invokeAsync(record)
+            .handle((created, error) -> error == null
+                ? new ImportRowResult(candidate.line(), created, Optional.of(record.patientId()), Optional.empty())
+                : new ImportRowResult(candidate.line(), false, Optional.empty(), Optional.of(error.getMessage()))
+            );
+    }
+
+    private static ByteString toJsonLine(Object value) {
+        try {
+            return ByteString.fromString(
+                JsonSupport.getObjectMapper().writeValueAsString(value) + "\n"
+            );
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Post("/patient/merge")
     public HttpResponse merge(PatientMergeRequest mergeRequest) {
+        return EndpointMetrics.timed("POST /patients/patient/merge", requestContext(), () -> doMerge(mergeRequest));
+    }
+
+    private HttpResponse doMerge(PatientMergeRequest mergeRequest) {
         logger.info(
             "Request to merge patient id={} with patient {}",
             mergeRequest.updated().patientId(),
@@ -102,7 +310,11 @@ public class PatientRecordEndpoint {
 
     @Put("/patient/{patientId}")
     public HttpResponse update(String patientId, PatientRecord record) {
-        logger.info("Request to update patient id={}", patientId);
+        return EndpointMetrics.timed("PUT /patients/patient/{patientId}", requestContext(), () -> doUpdate(patientId, record));
+    }
+
+    private HttpResponse doUpdate(String patientId, PatientRecord record) {
+        log.info("Update patient", "patientId", patientId);
         componentClient
             .forEventSourcedEntity(patientId)
             .method(PatientRecordEntity::update)
@@ -112,7 +324,11 @@ public class PatientRecordEndpoint {
 
     @Delete("/patient/{patientId}")
     public HttpResponse delete(String patientId) {
-        logger.info("Request to delete patient id={}", patientId);
+        return EndpointMetrics.timed("DELETE /patients/patient/{patientId}", requestContext(), () -> doDelete(patientId));
+    }
+
+    private HttpResponse doDelete(String patientId) {
+        log.info("Delete patient", "patientId", patientId);
         componentClient
             .forEventSourcedEntity(patientId)
             .method(PatientRecordEntity::delete)
@@ -122,6 +338,10 @@ public class PatientRecordEndpoint {
 
     @Get("/delivery/summary")
     public PatientRecordDeliverySummary getDeliverySummary() {
+        return EndpointMetrics.timed("GET /patients/delivery/summary", requestContext(), () -> doGetDeliverySummary());
+    }
+
+    private PatientRecordDeliverySummary doGetDeliverySummary() {
         var required = componentClient
             .forView()
             .method(PatientRecordDeliveryView::getRequiredDeliveryCount)
@@ -155,9 +375,15 @@ public class PatientRecordEndpoint {
 
     @Post("/search")
     public List<PatientRecord> searchPatients(PatientSearchCriteria criteria) {
-        logger.info(
-            "Search request - firstName: {}, lastName: {}",
+        return EndpointMetrics.timed("POST /patients/search", requestContext(), () -> doSearchPatients(criteria));
+    }
+
+    private List<PatientRecord> doSearchPatients(PatientSearchCriteria criteria) {
+        log.info(
+            "Search patients",
+            "firstName",
             criteria.firstName().orElse("N/A"),
+            "lastName",
             criteria.lastName().orElse("N/A")
         );
 
@@ -186,6 +412,73 @@ public class PatientRecordEndpoint {
         }
     }
 
+    public record PatientLookupRequest(
+        Optional<String> healthNumber,
+        Optional<String> firstName,
+        Optional<String> lastName
+    ) {}
+
+    /**
+     * @param source where the records came from: local, central-cache, central, or
+     *               central-unavailable when central didn't answer in time
+     */
+    public record PatientLookupResult(
+        String source,
+        List<PatientRecord> patientRecords
+    ) {}
+
+    /**
+     * Finds a patient by health number, or else by first and last name, searching this store first
+     * and falling back to central for patients registered at other stores.
+     */
+    @Post("/lookup")
+    public PatientLookupResult lookup(PatientLookupRequest request) {
+        return EndpointMetrics.timed("POST /patients/lookup", requestContext(), () -> doLookup(request));
+    }
+
+    private PatientLookupResult doLookup(PatientLookupRequest request) {
+        String healthNumber = clean(request.healthNumber());
+        String firstName = clean(request.firstName());
+        String lastName = clean(request.lastName());
+        if (healthNumber == null && (firstName == null || lastName == null)) {
+            throw HttpException.badRequest(
+                "Either healthNumber or both firstName and lastName must be provided"
+            );
+        }
+
+        var local = healthNumber != null
+            ? componentClient
+                .forView()
+                .method(PatientSearchView::searchByHealthNumber)
+                .invoke(healthNumber)
+                .patientRecords()
+            : componentClient
+                .forView()
+                .method(PatientSearchView::searchByFirstName)
+                .invoke(firstName)
+                .patientRecords()
+                .stream()
+                .filter(r -> r.lastName().equalsIgnoreCase(lastName))
+                .toList();
+        if (!local.isEmpty()) {
+            return new PatientLookupResult("local", local);
+        }
+
+        logger.info("Patient not found locally, looking up at central");
+        var central = healthNumber != null
+            ? centralLookup.byHealthNumber(healthNumber)
+            : centralLookup.byName(firstName, lastName);
+        var source = switch (central.source()) {
+            case CACHE -> "central-cache";
+            case CENTRAL -> "central";
+            case UNAVAILABLE -> "central-unavailable";
+        };
+        return new PatientLookupResult(
+            source,
+            central.patientRecords().stream().map(StorePatientRecord::toPatientRecord).toList()
+        );
+    }
+
     private PatientRecord getPatientRecordFromCreateRequest(
         PatientCreateRequest r,
         String patientId
@@ -6,10 +6,12 @@ import akka.javasdk.eventsourcedentity.EventSourcedEntity;
 import akka.javasdk.eventsourcedentity.EventSourcedEntityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import shared.metrics.RecoveryTracker;
 import pharmacy.domain.PatientRecord;
 import pharmacy.domain.PatientRecordEvent;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @ComponentId("patient-record")
@@ -18,6 +20,7 @@ public class PatientRecordEntity
 
 
     private final String entityId;
+    private final RecoveryTracker recovery = new RecoveryTracker("patient-record");
 
     private static final Logger logger = LoggerFactory.getLogger(PatientRecordEntity.class);
 
@@ -36,6 +39,7 @@ public class PatientRecordEntity
     }
 
     public Effect<Done> create(PatientRecord patientRecord) {
+        recovery.commandReceived(currentState());
         if (Optional.ofNullable(currentState()).isPresent()) {
             logger.info("PatientRecord id={} already exists.", entityId);
             return effects().error("PatientRecord already exists.");
@@ -45,26 +49,74 @@ public class PatientRecordEntity
             return effects().error("PatientRecord expunged.");
         }
         return validate(patientRecord)
-                .orElseGet(() -> {
-                    var events = new ArrayList<PatientRecordEvent>();
-                    events.add(new PatientRecordEvent.PatientRecordCreated(patientRecord));
-                    if (patientRecord.smsOptInPref())
-                        events.add(new PatientRecordEvent.PatientOptedInForSms());
-                    return effects()
-                            .persistAll(events)
-                            .thenReply(newState -> Done.getInstance());
-                }
+                .orElseGet(() -> effects()
+                        .persistAll(createdEvents(patientRecord))
+                        .thenReply(newState -> Done.getInstance())
         );
     }
 
+    /**
+     * Create for imports that may be retried. A record the store already holds, or has deleted, is left
+     * as it is; the reply tells whether the record was created.
+     */
+    public Effect<Boolean> createIfAbsent(PatientRecord patientRecord) {
+        recovery.commandReceived(currentState());
+        if (currentState() != null || isDeleted()) {
+            return effects().reply(false);
+        }
+        var invalid = patientRecord.validationError();
+        if (invalid.isPresent()) {
+            return effects().error(invalid.get());
+        }
+        return effects()
+                .persistAll(createdEvents(patientRecord))
+                .thenReply(newState -> true);
+    }
+
+    private static List<PatientRecordEvent> createdEvents(PatientRecord patientRecord) {
+        var events = new ArrayList<PatientRecordEvent>();
+        events.add(new PatientRecordEvent.PatientRecordCreated(patientRecord));
+        if (patientRecord.smsOptInPref())
+            events.add(new PatientRecordEvent.PatientOptedInForSms());
+        return events;
+    }
+
+    /**
+     * Takes a record from central when restoring the store. Records the store already holds, or has
+     * deleted, are left as they are; the reply tells whether the record was restored.
+     */
+    public Effect<Boolean> restore(PatientRecord patientRecord) {
+        recovery.commandReceived(currentState());
+        if (currentState() != null || isDeleted()) {
+            return effects().reply(false);
+        }
+        return effects()
+                .persist(new PatientRecordEvent.PatientRecordRestored(patientRecord))
+                .thenReply(newState -> true);
+    }
+
     public ReadOnlyEffect<Optional<PatientRecord>> getRecord() {
+        recovery.commandReceived(currentState());
         if (isDeleted()) {
             return effects().error("PatientRecord expunged.");
         }
         return effects().reply(Optional.ofNullable(currentState()));
     }
 
+    /**
+     * Like {@link #getRecord()} but replies empty instead of failing once the record has been expunged.
+     * Used by consumers that need the full record behind a field-level change event.
+     */
+    public ReadOnlyEffect<Optional<PatientRecord>> getCurrentRecord() {
+        recovery.commandReceived(currentState());
+        if (isDeleted()) {
+            return effects().reply(Optional.empty());
+        }
+        return effects().reply(Optional.ofNullable(currentState()));
+    }
+
     public Effect<Done> update(PatientRecord patientRecord) {
+        recovery.commandReceived(currentState());
         if (isDeleted()) {
             return effects().error("PatientRecord expunged.");
         }
@@ -72,10 +124,13 @@ public class PatientRecordEntity
             return effects().error("PatientRecord not found.");
         return validate(patientRecord)
                 .orElseGet(() -> {
-                    var events = new ArrayList<PatientRecordEvent>();
-                    events.add(new PatientRecordEvent.PatientRecordUpdated(patientRecord));
-                    if(!currentState().smsOptInPref() && patientRecord.smsOptInPref())
-                        events.add(new PatientRecordEvent.PatientOptedInForSms());
+                    // only persist the field groups that actually changed
+                    var events = new ArrayList<PatientRecordEvent>(currentState().changesTo(patientRecord));
+                    if (events.isEmpty()) {
+                        logger.info("PatientRecord id={} unchanged, nothing to persist.", entityId);
+                        return effects().reply(Done.getInstance());
+                    }
+                    events.add(new PatientRecordEvent.PatientRecordChangeCompleted());
                     return effects()
                             .persistAll(events)
                             .thenReply(newState -> Done.getInstance());
@@ -83,6 +138,7 @@ public class PatientRecordEntity
     }
 
     public Effect<Done> delete() {
+        recovery.commandReceived(currentState());
         if(currentState() == null)
             return effects().error("PatientRecord not found");
         else if(isDeleted())
@@ -94,41 +150,45 @@ public class PatientRecordEntity
     }
 
     public Effect<Done> merge(PatientMergeRequest request) {
+        recovery.commandReceived(currentState());
         if (isDeleted()) {
             return effects().error("PatientRecord expunged");
         }
+        if(currentState() == null)
+            return effects().error("PatientRecord not found.");
         return validate(request.updated)
                 .orElseGet(() -> {
-                    var merged = new PatientRecordEvent.PatientRecordMerged(request.updated, request.mergedPatientId);
-                    var updated = new PatientRecordEvent.PatientRecordUpdated(request.updated);
+                    var events = new ArrayList<PatientRecordEvent>();
+                    events.add(new PatientRecordEvent.PatientRecordMergedWith(request.mergedPatientId));
+                    events.addAll(currentState().changesTo(request.updated));
+                    events.add(new PatientRecordEvent.PatientRecordChangeCompleted());
                     return effects()
-                            .persist(merged, updated)
+                            .persistAll(events)
                             .thenReply(newState -> Done.getInstance());
                 });
     }
 
     public PatientRecord applyEvent(PatientRecordEvent event) {
+        recovery.eventApplied();
         return switch (event) {
             case PatientRecordEvent.PatientRecordCreated evt -> evt.patientRecord();
+            case PatientRecordEvent.PatientRecordRestored evt -> evt.patientRecord();
             case PatientRecordEvent.PatientRecordUpdated evt -> evt.patientRecord();
             case PatientRecordEvent.PatientRecordDeleted evt -> currentState();
             case PatientRecordEvent.PatientRecordMerged evt -> evt.updated();
-            case PatientRecordEvent.PatientOptedInForSms evt -> currentState();
+            case PatientRecordEvent.PatientRecordMergedWith evt -> currentState();
+            case PatientRecordEvent.PatientRecordChangeCompleted evt -> currentState();
+            case PatientRecordEvent.PatientOptedInForSms evt -> currentState().withSmsOptInPref(true);
+            case PatientRecordEvent.PatientOptedOutOfSms evt -> currentState().withSmsOptInPref(false);
+            case PatientRecordEvent.PatientNameChanged evt -> evt.applyTo(currentState());
+            case PatientRecordEvent.PatientContactChanged evt -> evt.applyTo(currentState());
+            case PatientRecordEvent.PatientIdentityChanged evt -> evt.applyTo(currentState());
+            case PatientRecordEvent.PatientAddressChanged evt -> evt.applyTo(currentState());
         };
     }
 
     private Optional<Effect<Done>> validate(PatientRecord patientRecord) {
-        if (patientRecord.firstName().trim().isEmpty())
-            return error("First name cannot be empty.");
-        if (patientRecord.lastName().trim().isEmpty())
-            return error("Last name cannot be empty.");
-        if (patientRecord.phoneNumber().trim().isEmpty())
-            return error("Phone number cannot be empty.");
-        return Optional.empty();
-    }
-
-    private Optional<Effect<Done>> error(String msg) {
-        return Optional.of(effects().error(msg));
+        return patientRecord.validationError().map(msg -> effects().error(msg));
     }
 
 }
\ No newline at end of file
@@ -7,16 +7,17 @@ import akka.javasdk.annotations.Table;
 import akka.javasdk.view.TableUpdater;
 import akka.javasdk.view.View;
 import java.util.List;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import pharmacy.application.logging.HotPathLogger;
+import shared.metrics.ViewLag;
 import pharmacy.domain.PatientRecord;
 import pharmacy.domain.PatientRecordEvent;
 
 @ComponentId("patient-search-view")
 public class PatientSearchView extends View {
 
-    private static final Logger logger = LoggerFactory.getLogger(
-        PatientSearchView.class
+    private static final HotPathLogger log = HotPathLogger.of(
+        PatientSearchView.class,
+        "view"
     );
 
     // Define the Java record for search criteria
@@ -34,7 +35,7 @@ public class PatientSearchView extends View {
         """
     )
     public QueryEffect<PatientRecords> searchByFirstName(String firstName) {
-        logger.info("Searching patients by first name: {}", firstName);
+        log.info("Searching patients by first name", "firstName", firstName);
         return queryResult();
     }
 
@@ -45,7 +46,7 @@ public class PatientSearchView extends View {
         """
     )
     public QueryEffect<PatientRecords> searchByLastName(String lastName) {
-        logger.info("Searching patients by last name: {}", lastName);
+        log.info("Searching patients by last name", "lastName", lastName);
         return queryResult();
     }
 
@@ -59,9 +60,11 @@ public class PatientSearchView extends View {
     public QueryEffect<PatientRecords> searchByFirstAndLastName(
         FirstAndLastNameSearchCriteria criteria
     ) {
-        logger.info(
-            "Searching patients by first name: {} and last name: {}",
+        log.info(
+            "Searching patients by first and last name",
+            "firstName",
             criteria.firstName(),
+            "lastName",
             criteria.lastName()
         );
         return queryResult();
@@ -75,10 +78,33 @@ public class PatientSearchView extends View {
         """
     )
     public QueryEffect<PatientRecords> searchByName(String searchTerm) {
-        logger.info("Searching patients by name term: {}", searchTerm);
+        log.info("Searching patients by name term", "searchTerm", searchTerm);
         return queryResult();
     }
 
+    @Query(
+        """
+        SELECT * as patientRecords FROM patientRecords
+        WHERE provHealthNumber = :healthNumber
+        """
+    )
+    public QueryEffect<PatientRecords> searchByHealthNumber(String healthNumber) {
+        log.info("Searching patients by health number");
+        return queryResult();
+    }
+
+    /**
+     * Every record of this store, emitted as it is read. Used for reconciliation with central.
+     */
+    @Query(
+        """
+        SELECT * FROM patientRecords
+        """
+    )
+    public QueryStreamEffect<PatientRecord> streamAll() {
+        return queryStreamResult();
+    }
+
     @Table("patientRecords")
     @Consume.FromEventSourcedEntity(
         value = PatientRecordEntity.class,
@@ -87,56 +113,126 @@ public class PatientSearchView extends View {
     public static class PatientTableUpdater
         extends TableUpdater<PatientRecord> {
 
-        private static final Logger logger = LoggerFactory.getLogger(
-            PatientTableUpdater.class
+        private static final HotPathLogger log = HotPathLogger.of(
+            PatientTableUpdater.class,
+            "view"
         );
 
+        private void recordApplied() {
+            ViewLag.global().applied(
+                "patient-search-view",
+                updateContext().metadata().asCloudEvent().time()
+            );
+        }
+
         public Effect<PatientRecord> onPatientRecordCreated(
             PatientRecordEvent.PatientRecordCreated event
         ) {
-            logger.info(
-                "Patient record created in search view: {}",
+            log.info(
+                "Patient record created in search view",
+                "patientId",
                 event.patientRecord().patientId()
             );
+            recordApplied();
+            return effects().updateRow(event.patientRecord());
+        }
+
+        public Effect<PatientRecord> onPatientRecordRestored(
+            PatientRecordEvent.PatientRecordRestored event
+        ) {
+            recordApplied();
             return effects().updateRow(event.patientRecord());
         }
 
         public Effect<PatientRecord> onPatientRecordUpdated(
             PatientRecordEvent.PatientRecordUpdated event
         ) {
-            logger.info(
-                "Patient record updated in search view: {}",
+            log.info(
+                "Patient record updated in search view",
+                "patientId",
                 event.patientRecord().patientId()
             );
+            recordApplied();
             return effects().updateRow(event.patientRecord());
         }
 
         public Effect<PatientRecord> onPatientRecordDeleted(
             PatientRecordEvent.PatientRecordDeleted event
         ) {
-            logger.info(
-                "Patient record deleted from search view: {}",
+            log.info(
+                "Patient record deleted from search view",
+                "patientId",
                 event.patientId()
             );
+            recordApplied();
             return effects().deleteRow();
         }
 
         public Effect<PatientRecord> onPatientRecordMerged(
             PatientRecordEvent.PatientRecordMerged event
         ) {
-            logger.info(
-                "Patient record merged in search view: {}",
+            log.info(
+                "Patient record merged in search view",
+                "patientId",
                 event.updated().patientId()
             );
+            recordApplied();
             return effects().updateRow(event.updated());
         }
 
+        public Effect<PatientRecord> onPatientRecordMergedWith(
+            PatientRecordEvent.PatientRecordMergedWith event
+        ) {
+            // the merged field values arrive as separate change events
+            recordApplied();
+            return effects().updateRow(rowState());
+        }
+
         public Effect<PatientRecord> onPatientOptedInForSms(
             PatientRecordEvent.PatientOptedInForSms event
         ) {
-            // SMS opt-in doesn't change the patient data, so keep current state
-            // logger.info("Patient opted in for SMS: {}", rowState().patientId());
-            return effects().updateRow(rowState());
+            recordApplied();
+            return effects().updateRow(rowState().withSmsOptInPref(true));
+        }
+
+        public Effect<PatientRecord> onPatientOptedOutOfSms(
+            PatientRecordEvent.PatientOptedOutOfSms event
+        ) {
+            recordApplied();
+            return effects().updateRow(rowState().withSmsOptInPref(false));
+        }
+
+        public Effect<PatientRecord> onPatientNameChanged(
+            PatientRecordEvent.PatientNameChanged event
+        ) {
+            log.info(
+                "Patient name changed in search view",
+                "patientId",
+                rowState().patientId()
+            );
+            recordApplied();
+            return effects().updateRow(event.applyTo(rowState()));
+        }
+
+        public Effect<PatientRecord> onPatientContactChanged(
+            PatientRecordEvent.PatientContactChanged event
+        ) {
+            recordApplied();
+            return effects().updateRow(event.applyTo(rowState()));
+        }
+
+        public Effect<PatientRecord> onPatientIdentityChanged(
+            PatientRecordEvent.PatientIdentityChanged event
+        ) {
+            recordApplied();
+            return effects().updateRow(event.applyTo(rowState()));
+        }
+
+        public Effect<PatientRecord> onPatientAddressChanged(
+            PatientRecordEvent.PatientAddressChanged event
+        ) {
+            recordApplied();
+            return effects().updateRow(event.applyTo(rowState()));
         }
     }
 }
@@ -1,7 +1,13 @@
 package pharmacy.application.central.client;
 import akka.javasdk.http.StrictResponse;
 import akka.util.ByteString;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import pharmacy.application.central.client.domain.HealthNumberLookup;
+import pharmacy.application.central.client.domain.RecordDigest;
 import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.central.client.domain.StorePatientRecordPage;
+import pharmacy.application.central.client.domain.StorePatientSearchCriteria;
 
 public interface CentralClient {
 
@@ -13,4 +19,20 @@ public interface CentralClient {
 
     StrictResponse<akka.util.ByteString> delete(String pharmacyId, String patientId);
 
+    CompletionStage<StrictResponse<HealthNumberLookup>> lookupByHealthNumber(String healthNumber);
+
+    CompletionStage<StrictResponse<List<StorePatientRecord>>> search(StorePatientSearchCriteria criteria);
+
+    StrictResponse<StorePatientRecordPage> getPage(String pharmacyId, String pageToken, int pageSize);
+
+    StrictResponse<RecordDigest.BucketDigests> getDigests(String pharmacyId, int buckets);
+
+    StrictResponse<RecordDigest.Entries> getEntries(String pharmacyId, RecordDigest.EntriesRequest request);
+
+    /**
+     * A client whose requests carry the given W3C traceparent header, so that central's spans join the
+     * caller's trace.
+     */
+    CentralClient withTraceParent(String traceParent);
+
 }
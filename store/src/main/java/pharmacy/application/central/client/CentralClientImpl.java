@@ -2,17 +2,30 @@ package pharmacy.application.central.client;
 
 import akka.javasdk.http.HttpClient;
 import akka.javasdk.http.HttpClientProvider;
+import akka.javasdk.http.RequestBuilder;
 import akka.javasdk.http.StrictResponse;
 import akka.util.ByteString;
 import com.typesafe.config.Config;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pharmacy.application.central.client.domain.HealthNumberLookup;
+import pharmacy.application.central.client.domain.RecordDigest;
 import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.central.client.domain.StorePatientRecordPage;
+import pharmacy.application.central.client.domain.StorePatientSearchCriteria;
+import shared.metrics.MetricsRegistry;
 
 public class CentralClientImpl implements CentralClient {
 
     private final String CENTRAL_ROUTE = "store.central-route";
     private final HttpClient httpClient;
+    private final Optional<String> traceParent;
 
     private static final Logger logger = LoggerFactory.getLogger(
         CentralClientImpl.class
@@ -25,25 +38,33 @@ public class CentralClientImpl implements CentralClient {
         var route = config.getString(CENTRAL_ROUTE);
         logger.info("Configuring central client with route: '{}'", route);
         httpClient = httpClientProvider.httpClientFor(route.trim());
+        traceParent = Optional.empty();
+    }
+
+    private CentralClientImpl(HttpClient httpClient, String traceParent) {
+        this.httpClient = httpClient;
+        this.traceParent = Optional.of(traceParent);
+    }
+
+    @Override
+    public CentralClient withTraceParent(String traceParent) {
+        return new CentralClientImpl(httpClient, traceParent);
     }
 
     @Override
     public StrictResponse<ByteString> create(StorePatientRecord record) {
-        logger.info("Creating patient record: {}", record);
-        return httpClient
-            .PUT("/patients/patient")
+        return timed("create", () -> putRequest("/patients/patient")
             .withRequestBody(record)
-            .invoke();
+            .invoke());
     }
 
     @Override
     public StrictResponse<akka.util.ByteString> update(
         StorePatientRecord record
     ) {
-        return httpClient
-            .POST("/patients/patient")
+        return timed("update", () -> postRequest("/patients/patient")
             .withRequestBody(record)
-            .invoke();
+            .invoke());
     }
 
     @Override
@@ -51,10 +72,9 @@ public class CentralClientImpl implements CentralClient {
         String pharmacyId,
         String patientId
     ) {
-        return httpClient
-            .GET("/patients/" + toId(pharmacyId, patientId))
+        return timed("get", () -> getRequest("/patients/" + toId(pharmacyId, patientId))
             .responseBodyAs(StorePatientRecord.class)
-            .invoke();
+            .invoke());
     }
 
     @Override
@@ -62,9 +82,136 @@ public class CentralClientImpl implements CentralClient {
         String pharmacyId,
         String patientId
     ) {
-        return httpClient
-            .DELETE("/patients/" + toId(pharmacyId, patientId))
-            .invoke();
+        return timed("delete", () -> deleteRequest("/patients/" + toId(pharmacyId, patientId))
+            .invoke());
+    }
+
+    @Override
+    public CompletionStage<StrictResponse<HealthNumberLookup>> lookupByHealthNumber(
+        String healthNumber
+    ) {
+        return timedAsync("lookup_health_number", () -> getRequest(
+                "/patients/health-number/" +
+                URLEncoder.encode(healthNumber, StandardCharsets.UTF_8).replace("+", "%20") +
+                "?hydrate=true"
+            )
+            .responseBodyAs(HealthNumberLookup.class)
+            .invokeAsync());
+    }
+
+    @Override
+    public CompletionStage<StrictResponse<List<StorePatientRecord>>> search(
+        StorePatientSearchCriteria criteria
+    ) {
+        return timedAsync("search", () -> postRequest("/patients/search")
+            .withRequestBody(criteria)
+            .responseBodyAsListOf(StorePatientRecord.class)
+            .invokeAsync());
+    }
+
+    @Override
+    public StrictResponse<StorePatientRecordPage> getPage(
+        String pharmacyId,
+        String pageToken,
+        int pageSize
+    ) {
+        return timed("get_page", () -> getRequest(
+                "/patients/sync/pharmacy/" +
+                pharmacyId +
+                "?pageSize=" +
+                pageSize +
+                "&pageToken=" +
+                URLEncoder.encode(pageToken, StandardCharsets.UTF_8)
+            )
+            .responseBodyAs(StorePatientRecordPage.class)
+            .invoke());
+    }
+
+    @Override
+    public StrictResponse<RecordDigest.BucketDigests> getDigests(
+        String pharmacyId,
+        int buckets
+    ) {
+        return timed("get_digests", () -> getRequest("/patients/digests/pharmacy/" + pharmacyId + "?buckets=" + buckets)
+            .responseBodyAs(RecordDigest.BucketDigests.class)
+            .invoke());
+    }
+
+    @Override
+    public StrictResponse<RecordDigest.Entries> getEntries(
+        String pharmacyId,
+        RecordDigest.EntriesRequest request
+    ) {
+        return timed("get_entries", () -> postRequest("/patients/digests/pharmacy/" + pharmacyId + "/entries")
+            .withRequestBody(request)
+            .responseBodyAs(RecordDigest.Entries.class)
+            .invoke());
+    }
+
+    /**
+     * Records the round trip to central in central_request_seconds and its outcome, by HTTP status,
+     * in central_requests_total. Requests that got no response at all are counted with status "error".
+     */
+    private <T> StrictResponse<T> timed(String operation, Supplier<StrictResponse<T>> request) {
+        var start = System.nanoTime();
+        try {
+            var response = request.get();
+            recordRequest(operation, Integer.toString(response.status().intValue()), start);
+            return response;
+        } catch (RuntimeException e) {
+            recordRequest(operation, "error", start);
+            throw e;
+        }
+    }
+
+    private <T> CompletionStage<StrictResponse<T>> timedAsync(
+        String operation,
+        Supplier<CompletionStage<StrictResponse<T>>> request
+    ) {
+        var start = System.nanoTime();
+        return request
+            .get()
+            .whenComplete((response, error) ->
+                recordRequest(
+                    operation,
+                    error == null ? Integer.toString(response.status().intValue()) : "error",
+                    start
+                )
+            );
+    }
+
+    private static void recordRequest(String operation, String status, long start) {
+        if (!status.equals("error") && Integer.parseInt(status) < 500) CentralReachability.global().recordSuccess();
+        else CentralReachability.global().recordFailure();
+        var metrics = MetricsRegistry.global();
+        metrics
+            .timer("central_request_seconds", "Round trip time of requests to central", "operation", operation)
+            .observeNanos(System.nanoTime() - start);
+        metrics
+            .counter("central_requests_total", "Requests to central by response status", "operation", operation, "status", status)
+            .increment();
+    }
+
+    private RequestBuilder<ByteString> putRequest(String path) {
+        return traced(httpClient.PUT(path));
+    }
+
+    private RequestBuilder<ByteString> postRequest(String path) {
+        return traced(httpClient.POST(path));
+    }
+
+    private RequestBuilder<ByteString> getRequest(String path) {
+        return traced(httpClient.GET(path));
+    }
+
+    private RequestBuilder<ByteString> deleteRequest(String path) {
+        return traced(httpClient.DELETE(path));
+    }
+
+    private RequestBuilder<ByteString> traced(RequestBuilder<ByteString> request) {
+        return traceParent
+            .map(value -> request.addHeader("traceparent", value))
+            .orElse(request);
     }
 
     private String toId(String pharmacyId, String patientId) {
@@ -0,0 +1,59 @@
+package pharmacy.application.central.client;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Whether central has been answering, judged from the outcome of the requests CentralClientImpl makes.
+ * A response with a status below 500 counts as a success, anything else as a failure. Central is
+ * considered unreachable (the circuit is open) once failureThreshold requests in a row have failed,
+ * and reachable again after the next success.
+ * <p>
+ * Clients are created per Bootstrap and per traced delivery, so the state is a static singleton like
+ * MetricsRegistry rather than something held by each client.
+ */
+public final class CentralReachability {
+
+    public enum State { UNKNOWN, REACHABLE, UNREACHABLE }
+
+    public record Status(
+        State state,
+        int consecutiveFailures,
+        Optional<Instant> lastSuccess,
+        Optional<Instant> lastFailure
+    ) {}
+
+    private static final CentralReachability GLOBAL = new CentralReachability(Clock.systemUTC());
+
+    public static CentralReachability global() {
+        return GLOBAL;
+    }
+
+    private final Clock clock;
+    private int consecutiveFailures;
+    private Instant lastSuccess;
+    private Instant lastFailure;
+
+    CentralReachability(Clock clock) {
+        this.clock = clock;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        lastSuccess = clock.instant();
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        lastFailure = clock.instant();
+    }
+
+    public synchronized Status status(int failureThreshold) {
+        State state;
+        if (consecutiveFailures >= failureThreshold) state = State.UNREACHABLE;
+        else if (lastSuccess == null) state = State.UNKNOWN;
+        else state = State.REACHABLE;
+        return new Status(state, consecutiveFailures, Optional.ofNullable(lastSuccess), Optional.ofNullable(lastFailure));
+    }
+}
@@ -0,0 +1,13 @@
+package pharmacy.application.central.client.domain;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Central's health-number index entry, with the records when requested.
+ */
+public record HealthNumberLookup(
+        String healthNumberKey,
+        List<String> storePatientRecordIds,
+        Optional<List<StorePatientRecord>> records
+) {}
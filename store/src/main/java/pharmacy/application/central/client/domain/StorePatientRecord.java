@@ -1,6 +1,7 @@
 package pharmacy.application.central.client.domain;
 
 import java.util.Optional;
+import pharmacy.domain.PatientRecord;
 
 public record StorePatientRecord(
         String pharmacyId,
@@ -20,4 +21,50 @@ public record StorePatientRecord(
         String country,
         String langPref,
         boolean smsOptInPref
-) {}
\ No newline at end of file
+) {
+
+    public static StorePatientRecord fromPatientRecord(PatientRecord pr) {
+        return new StorePatientRecord(
+                pr.pharmacyId(),
+                pr.patientId(),
+                pr.firstName(),
+                pr.lastName(),
+                pr.prefName(),
+                pr.dateOfBirth(),
+                pr.phoneNumber(),
+                pr.provHealthNumber(),
+                pr.unitNumber(),
+                pr.streetNumber(),
+                pr.streetName(),
+                pr.city(),
+                pr.province(),
+                pr.postalCode(),
+                pr.country(),
+                pr.langPref(),
+                pr.smsOptInPref()
+        );
+    }
+
+    public PatientRecord toPatientRecord() {
+        return new PatientRecord(
+                pharmacyId,
+                patientId,
+                firstName,
+                lastName,
+                prefName,
+                dateOfBirth,
+                phoneNumber,
+                provHealthNumber,
+                unitNumber,
+                streetNumber,
+                streetName,
+                city,
+                province,
+                postalCode,
+                country,
+                langPref,
+                smsOptInPref
+        );
+    }
+
+}
@@ -0,0 +1,8 @@
+package pharmacy.application.central.client.domain;
+
+import java.util.List;
+
+/**
+ * One page of central's records for a pharmacy, see {@link pharmacy.application.central.client.CentralClient#getPage}.
+ */
+public record StorePatientRecordPage(List<StorePatientRecord> patientRecords, String nextPageToken, boolean hasMore) {}
@@ -0,0 +1,25 @@
+package pharmacy.application.central.client.domain;
+
+import java.util.Optional;
+
+/**
+ * Central's POST /patients/search body.
+ */
+public record StorePatientSearchCriteria(
+        Optional<String> storeId,
+        Optional<String> province,
+        Optional<String> firstName,
+        Optional<String> lastName,
+        Optional<String> healthNumber
+) {
+
+    public static StorePatientSearchCriteria byName(String firstName, String lastName) {
+        return new StorePatientSearchCriteria(
+                Optional.empty(),
+                Optional.empty(),
+                Optional.ofNullable(firstName),
+                Optional.ofNullable(lastName),
+                Optional.empty());
+    }
+
+}
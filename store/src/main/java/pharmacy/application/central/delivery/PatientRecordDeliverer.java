@@ -5,22 +5,40 @@ import akka.javasdk.annotations.Consume;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.consumer.Consumer;
 import akka.javasdk.http.StrictResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
 import pharmacy.application.PatientRecordEntity;
 import pharmacy.application.central.client.CentralClient;
 import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.logging.HotPathLogger;
+import shared.metrics.MetricsRegistry;
 import pharmacy.domain.PatientRecord;
 import pharmacy.domain.PatientRecordEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.util.Set;
-import java.util.function.Supplier;
+import java.util.function.Function;
 
 @ComponentId("patient-record-deliverer")
 @Consume.FromEventSourcedEntity(value = PatientRecordEntity.class, ignoreUnknown = true)
 public class PatientRecordDeliverer extends Consumer {
 
 
-    private static final Logger logger = LoggerFactory.getLogger(PatientRecordDeliverer.class);
+    private static final HotPathLogger log = HotPathLogger.of(PatientRecordDeliverer.class, "delivery");
+
+    /**
+     * Outcomes of a create or update that end its delivery. 202 is central holding a record for an unknown
+     * pharmacy in quarantine, 400 a record central will never accept, e.g. for an unknown pharmacy when
+     * central rejects those; retrying either would only repeat the answer.
+     */
+    private static final Set<String> TERMINAL_UPSERT_STATUSES = Set.of("200 OK", "202 Accepted", "400 Bad Request");
+
+    /**
+     * Outcomes of a delete that end its delivery. 404 is central having no such record, because it was
+     * quarantined or rejected rather than ingested, or has been deleted already.
+     */
+    private static final Set<String> TERMINAL_DELETE_STATUSES = Set.of("200 OK", "404 Not Found");
 
     private final ComponentClient componentClient;
     private final CentralClient centralClient;
@@ -31,57 +49,131 @@ public class PatientRecordDeliverer extends Consumer {
     }
 
     public Consumer.Effect onCreate(PatientRecordEvent.PatientRecordCreated event) {
-        return deliver(() -> forwardCreate(event.patientRecord()));
+        return deliver("create", client -> forwardCreate(client, event.patientRecord()));
     }
 
     public Consumer.Effect onUpdate(PatientRecordEvent.PatientRecordUpdated event) {
-        return deliver(() -> forwardUpdate(event.patientRecord()));
+        return deliver("update", client -> forwardUpdate(client, event.patientRecord()));
     }
 
     public Consumer.Effect onDelete(PatientRecordEvent.PatientRecordDeleted event) {
-        return  deliver(() -> forwardDelete(event.pharmacyId(), event.patientId()));
+        return deliver("delete", client -> forwardDelete(client, event.pharmacyId(), event.patientId()));
     }
 
-    private boolean forwardCreate(PatientRecord record) {
-        logger.info("forwarding create for patient record patientId={}, updateId={}", record.patientId(), getUpdateId());
-        var result = centralClient.create(fromPatientRecord(record));
-        return isValid(result, Set.of("200 OK", "400 Bad Request"));
+    /**
+     * One delivery per update or merge command. The field-level change events before it are not delivered
+     * themselves, nor is the opt-in that follows the create of an opted-in patient.
+     */
+    public Consumer.Effect onChangeCompleted(PatientRecordEvent.PatientRecordChangeCompleted event) {
+        return deliver("update", this::forwardChange);
+    }
+
+    private boolean forwardCreate(CentralClient client, PatientRecord record) {
+        log.info("Forwarding to central", "operation", "create", "patientId", record.patientId(), "updateId", getUpdateId());
+        var result = client.create(StorePatientRecord.fromPatientRecord(record));
+        return isValid(result, TERMINAL_UPSERT_STATUSES);
     }
 
-    private boolean forwardUpdate(PatientRecord record) {
-        logger.info("forwarding update for patient record patientId={}, updateId={}", record.patientId(), getUpdateId());
-        var result = centralClient.update(fromPatientRecord(record));
-        return isValid(result, Set.of("200 OK"));
+    private boolean forwardUpdate(CentralClient client, PatientRecord record) {
+        log.info("Forwarding to central", "operation", "update", "patientId", record.patientId(), "updateId", getUpdateId());
+        var result = client.update(StorePatientRecord.fromPatientRecord(record));
+        return isValid(result, TERMINAL_UPSERT_STATUSES);
+    }
+
+    /**
+     * Central only accepts whole records, so the field-level changes of a command are forwarded as an
+     * update of the entity's current state. If the record has since been expunged there is nothing to update,
+     * the delete event that follows takes care of central.
+     */
+    private boolean forwardChange(CentralClient client) {
+        var patientId = UpdateIdUtility.getPatientId(messageContext());
+        var current = componentClient
+                .forEventSourcedEntity(patientId)
+                .method(PatientRecordEntity::getCurrentRecord)
+                .invoke();
+        if (current.isEmpty()) {
+            log.info("Patient record no longer exists, skipping update", "patientId", patientId, "updateId", getUpdateId());
+            return true;
+        }
+        return forwardUpdate(client, current.get());
     }
 
-    private boolean forwardDelete(String pharmacyId, String patientId) {
-        logger.info("forwarding delete for patient record patientId={}, updateId={}", patientId, getUpdateId());
-        var result = centralClient.delete(pharmacyId, patientId);
-        return isValid(result, Set.of("200 OK"));
+    private boolean forwardDelete(CentralClient client, String pharmacyId, String patientId) {
+        log.info("Forwarding to central", "operation", "delete", "patientId", patientId, "updateId", getUpdateId());
+        var result = client.delete(pharmacyId, patientId);
+        return isValid(result, TERMINAL_DELETE_STATUSES);
     }
 
     private boolean isValid(StrictResponse<?> response, Set<String> allowedStatuses) {
-        var status = response.status();
         var allowed = allowedStatuses.contains(response.status().toString());
-        logger.info("isValid check, status={}, allowed={}", status, allowed);
+        if (!allowed) log.warn("Central refused delivery", "status", response.status().intValue(), "updateId", getUpdateId());
+        else if (response.status().intValue() == 400)
+            log.warn("Central rejected the record, not retrying", "status", 400, "updateId", getUpdateId());
+        else if (response.status().intValue() == 404)
+            log.info("Central has no such record, nothing to delete", "updateId", getUpdateId());
         return allowed;
     }
 
     /**
      * Common delivery algorithm for patient record CRUD.
+     * <p>
+     * Recorded for every event: how long ago it was persisted (delivery_consumer_lag_seconds, the time
+     * this consumer is behind the head of the patient record stream) and the outcome and duration of
+     * its delivery. A failed delivery is retried by the runtime, so delivery_failures_total counts retries.
+     * <p>
+     * With tracing enabled, the call to central runs in its own span, a child of the span the runtime
+     * carried over from the write in the event metadata. The span is passed on to central in the
+     * traceparent header.
      */
-    private Consumer.Effect deliver(Supplier<Boolean> delivery) {
+    private Consumer.Effect deliver(String operation, Function<CentralClient, Boolean> delivery) {
+        var metrics = MetricsRegistry.global();
+        var start = System.nanoTime();
+        var persistedAt = messageContext().metadata().asCloudEvent().time().map(ZonedDateTime::toInstant);
+        persistedAt.ifPresent(time -> metrics
+                .gauge("delivery_consumer_lag_seconds", "Age of the event the deliverer is currently handling")
+                .set(Duration.between(time, Instant.now()).toSeconds()));
+
         if (alreadyDelivered()) {
-            logger.info("Already delivered {}, moving on", getUpdateId());
+            log.info("Already delivered, moving on", "updateId", getUpdateId());
+            metrics.counter("deliveries_total", "Patient record events handled by the deliverer",
+                    "operation", operation, "result", "already_delivered").increment();
             return effects().done();
-        } else {
-            var ok = delivery.get();
-            if (ok) {
-                markAsDelivered();
-                return effects().done();
-            } else
-                throw new RuntimeException("Delivery failed");
         }
+        var span = messageContext().tracing().startSpan("deliver patient record " + operation);
+        var client = span.map(s -> centralClient.withTraceParent(traceParent(s))).orElse(centralClient);
+        boolean ok = false;
+        try {
+            ok = delivery.apply(client);
+        } finally {
+            if (!ok) span.ifPresent(s -> s.setStatus(StatusCode.ERROR));
+            span.ifPresent(Span::end);
+            if (!ok) failed(operation);
+        }
+        if (!ok) throw new RuntimeException("Delivery failed");
+        markAsDelivered();
+        metrics.counter("deliveries_total", "Patient record events handled by the deliverer",
+                "operation", operation, "result", "delivered").increment();
+        metrics.timer("delivery_seconds", "Time to deliver one event, including the delivered checks",
+                "operation", operation).observeNanos(System.nanoTime() - start);
+        persistedAt.ifPresent(time -> metrics
+                .timer("delivery_event_age_seconds", "Time from an event being persisted to it reaching central",
+                        "operation", operation)
+                .observeNanos(Duration.between(time, Instant.now()).toNanos()));
+        return effects().done();
+    }
+
+    private static void failed(String operation) {
+        MetricsRegistry.global()
+                .counter("delivery_failures_total", "Deliveries that failed and will be retried", "operation", operation)
+                .increment();
+    }
+
+    /**
+     * The W3C traceparent header value for a span: version, trace id, span id and trace flags.
+     */
+    private static String traceParent(Span span) {
+        var context = span.getSpanContext();
+        return "00-" + context.getTraceId() + "-" + context.getSpanId() + "-" + context.getTraceFlags().asHex();
     }
 
     private String getUpdateId() {
@@ -97,33 +189,11 @@ public class PatientRecordDeliverer extends Consumer {
     }
 
     private akka.Done markAsDelivered() {
-        logger.info("Marking as delivered for {}", getUpdateId());
+        log.debug("Marking as delivered", "updateId", getUpdateId());
         return componentClient
                 .forEventSourcedEntity(getUpdateId())
                 .method(PatientRecordDeliveryEntity::markAsDelivered)
                 .invoke();
     }
 
-    private StorePatientRecord fromPatientRecord(PatientRecord pr) {
-        return new StorePatientRecord(
-                pr.pharmacyId(),
-                pr.patientId(),
-                pr.firstName(),
-                pr.lastName(),
-                pr.prefName(),
-                pr.dateOfBirth(),
-                pr.phoneNumber(),
-                pr.provHealthNumber(),
-                pr.unitNumber(),
-                pr.streetNumber(),
-                pr.streetName(),
-                pr.city(),
-                pr.province(),
-                pr.postalCode(),
-                pr.country(),
-                pr.langPref(),
-                pr.smsOptInPref()
-        );
-    }
-
 }
\ No newline at end of file
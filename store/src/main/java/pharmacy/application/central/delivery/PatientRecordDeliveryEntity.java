@@ -4,9 +4,10 @@ import akka.Done;
 import akka.javasdk.annotations.ComponentId;
 import akka.javasdk.eventsourcedentity.EventSourcedEntity;
 import akka.javasdk.eventsourcedentity.EventSourcedEntityContext;
+import java.time.Instant;
 import java.util.Optional;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import pharmacy.application.logging.HotPathLogger;
+import shared.metrics.RecoveryTracker;
 import pharmacy.domain.PatientRecord;
 import pharmacy.domain.delivery.PatientRecordDelivery;
 import pharmacy.domain.delivery.PatientRecordDeliveryEvent;
@@ -23,9 +24,11 @@ public class PatientRecordDeliveryEntity
     > {
 
     private final String entityId;
+    private final RecoveryTracker recovery = new RecoveryTracker("patient-record-delivery");
 
-    private static final Logger logger = LoggerFactory.getLogger(
-        PatientRecordDeliveryEntity.class
+    private static final HotPathLogger log = HotPathLogger.of(
+        PatientRecordDeliveryEntity.class,
+        "delivery"
     );
 
     public PatientRecordDeliveryEntity(EventSourcedEntityContext context) {
@@ -45,16 +48,18 @@ public class PatientRecordDeliveryEntity
     }
 
     public Effect<Done> create(String patientId) {
+        recovery.commandReceived(currentState());
+        if (isDeleted()) {
+            log.info("PatientRecordDelivery already delivered and expunged", "id", entityId);
+            return effects().reply(Done.getInstance());
+        }
         if (currentState().isDefined()) {
-            logger.info(
-                "PatientRecordDelivery already created, id={}",
-                entityId
-            );
+            log.info("PatientRecordDelivery already created", "id", entityId);
             return effects().reply(Done.getInstance());
         }
         if (currentState().delivered()) return alreadyDelivered();
 
-        logger.info("PatientRecordDelivery required, id={}", entityId);
+        log.info("PatientRecordDelivery required", "id", entityId);
         return effects()
             .persist(
                 new PatientRecordDeliveryEvent.PatientRecordRequired(patientId)
@@ -63,42 +68,54 @@ public class PatientRecordDeliveryEntity
     }
 
     public Effect<Done> markAsDelivered() {
+        recovery.commandReceived(currentState());
         if (!currentState().isDefined()) {
-            logger.info(
-                "PatientRecordDelivery does not exist, id={}",
-                entityId
-            );
+            log.info("PatientRecordDelivery does not exist", "id", entityId);
             return effects().reply(Done.getInstance());
         }
         if (currentState().delivered()) return alreadyDelivered();
-        logger.info(
-            "PatientRecordDelivery marking as delivered, id={}",
-            entityId
-        );
+        log.info("PatientRecordDelivery marking as delivered", "id", entityId);
         return effects()
-            .persist(new PatientRecordDeliveryEvent.PatientRecordDelivered())
+            .persist(new PatientRecordDeliveryEvent.PatientRecordDelivered(Instant.now()))
             .thenReply(s -> Done.done());
     }
 
+    /**
+     * Removes a delivered entry, used by retention. Undelivered entries are kept.
+     * Replies whether the entry was expunged by this call.
+     */
+    public Effect<Boolean> expunge() {
+        recovery.commandReceived(currentState());
+        if (isDeleted()) return effects().reply(false);
+        if (!currentState().delivered()) {
+            log.info("PatientRecordDelivery not yet delivered, keeping", "id", entityId);
+            return effects().reply(false);
+        }
+        return effects()
+            .persist(new PatientRecordDeliveryEvent.PatientRecordDeliveryExpunged())
+            .deleteEntity()
+            .thenReply(s -> true);
+    }
+
     private Effect<Done> alreadyDelivered() {
-        logger.info(
-            "PatientRecordDelivery has been already been delivered, id={}",
-            entityId
-        );
+        log.info("PatientRecordDelivery has been already been delivered", "id", entityId);
         return effects().reply(Done.getInstance());
     }
 
     public ReadOnlyEffect<PatientRecordDelivery> getState() {
+        recovery.commandReceived(currentState());
         return effects().reply(currentState());
     }
 
     public PatientRecordDelivery applyEvent(PatientRecordDeliveryEvent event) {
+        recovery.eventApplied();
         return switch (event) {
             case PatientRecordDeliveryEvent.PatientRecordRequired evt -> new PatientRecordDelivery(
                 evt.patientId(),
                 false
             );
             case PatientRecordDeliveryEvent.PatientRecordDelivered ignore -> currentState().withDelivery();
+            case PatientRecordDeliveryEvent.PatientRecordDeliveryExpunged ignore -> currentState();
         };
     }
 }
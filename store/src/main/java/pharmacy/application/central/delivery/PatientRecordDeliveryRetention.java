@@ -0,0 +1,75 @@
+package pharmacy.application.central.delivery;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timedaction.TimedAction;
+import akka.javasdk.timer.TimerScheduler;
+import com.typesafe.config.Config;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Every patient event creates its own {@link PatientRecordDeliveryEntity} and view row, which are only
+ * of interest until they are delivered. This action periodically expunges delivered entries older than
+ * the configured horizon, so that the entities and their journals don't pile up. The view keeps a small
+ * expunged row for each, which is how the delivery summary still counts them; an entry expunged by a run
+ * that fails halfway is counted all the same.
+ * Each run handles at most one batch; when a batch is full the next run follows shortly after.
+ */
+@ComponentId("patient-record-delivery-retention")
+public class PatientRecordDeliveryRetention extends TimedAction {
+
+    public static final String TIMER_NAME = "patient-record-delivery-retention";
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientRecordDeliveryRetention.class);
+
+    private final ComponentClient componentClient;
+    private final Duration horizon;
+    private final Duration interval;
+    private final int batchSize;
+
+    public PatientRecordDeliveryRetention(ComponentClient componentClient, Config config) {
+        this.componentClient = componentClient;
+        var retention = config.getConfig("store.delivery-retention");
+        this.horizon = retention.getDuration("horizon");
+        this.interval = retention.getDuration("interval");
+        this.batchSize = retention.getInt("batch-size");
+    }
+
+    public Effect purge() {
+        var cutoff = Instant.now().minus(horizon).toEpochMilli();
+        var expired = componentClient
+            .forView()
+            .method(PatientRecordDeliveryView::getExpiredDeliveries)
+            .invoke(new PatientRecordDeliveryView.ExpiryCriteria(cutoff, batchSize))
+            .deliveries();
+
+        long expunged = 0;
+        for (var delivery : expired) {
+            var removed = componentClient
+                .forEventSourcedEntity(delivery.eventID())
+                .method(PatientRecordDeliveryEntity::expunge)
+                .invoke();
+            if (removed) expunged++;
+        }
+        if (expunged > 0)
+            logger.info("Expunged {} delivered entries older than {}", expunged, horizon);
+
+        // give the view a moment to mark the expunged rows before the next batch
+        schedule(timers(), componentClient, expunged < batchSize ? interval : Duration.ofSeconds(1));
+        return effects().done();
+    }
+
+    public static void schedule(TimerScheduler timers, ComponentClient componentClient, Duration delay) {
+        timers.createSingleTimer(
+            TIMER_NAME,
+            delay,
+            componentClient
+                .forTimedAction()
+                .method(PatientRecordDeliveryRetention::purge)
+                .deferred()
+        );
+    }
+}
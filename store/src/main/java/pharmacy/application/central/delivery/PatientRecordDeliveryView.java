@@ -8,8 +8,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import akka.javasdk.annotations.Query;
 import akka.javasdk.annotations.Table;
+import shared.metrics.ViewLag;
 import pharmacy.domain.delivery.PatientRecordDeliveryEvent;
 
+import java.util.List;
+
 /**
  * The intent of this view is to add some observability to the patient record delivery process in
  * order to make the online/offline demo more effective.
@@ -40,12 +43,41 @@ public class PatientRecordDeliveryView extends View {
         return queryResult();
     }
 
+    /**
+     * Delivered entries older than the cutoff (epoch millis), oldest first, for retention. Entries that
+     * are already expunged are left out.
+     */
+    @Query(
+            """
+            SELECT * as deliveries from patientRecordDelivery
+            WHERE ok = true AND expunged = false AND deliveredAt < :cutoff
+            ORDER BY deliveredAt
+            LIMIT :limit
+            """
+    )
+    public QueryEffect<Deliveries> getExpiredDeliveries(ExpiryCriteria criteria) {
+        return queryResult();
+    }
+
     public record Count(Long amount) {}
 
-    public record Delivery(String eventID, String patientId, Boolean ok) {
+    public record ExpiryCriteria(Long cutoff, Integer limit) {}
 
-        public Delivery withOk() {
-            return new Delivery(eventID, patientId, true);
+    public record Deliveries(List<Delivery> deliveries) {}
+
+    /**
+     * deliveredAt is epoch millis, 0 for deliveries recorded before delivery times were kept.
+     * Expunged entries keep their row, so that the delivery counts still include them once the entity
+     * is gone.
+     */
+    public record Delivery(String eventID, String patientId, Boolean ok, Long deliveredAt, Boolean expunged) {
+
+        public Delivery withOk(Long deliveredAt) {
+            return new Delivery(eventID, patientId, true, deliveredAt, expunged);
+        }
+
+        public Delivery asExpunged() {
+            return new Delivery(eventID, patientId, true, deliveredAt, true);
         }
 
     }
@@ -58,12 +90,25 @@ public class PatientRecordDeliveryView extends View {
             return updateContext().eventSubject().get();
         }
 
+        private void recordApplied() {
+            ViewLag.global().applied("patient-record-delivery-view", updateContext().metadata().asCloudEvent().time());
+        }
+
         public Effect<Delivery> onRequired(PatientRecordDeliveryEvent.PatientRecordRequired event) {
-            return effects().updateRow(new Delivery(updateId(), event.patientId(), false));
+            recordApplied();
+            return effects().updateRow(new Delivery(updateId(), event.patientId(), false, null, false));
+        }
+
+        public Effect<Delivery> onDelivered(PatientRecordDeliveryEvent.PatientRecordDelivered event) {
+            var deliveredAt = event.deliveredAt() == null ? 0L : event.deliveredAt().toEpochMilli();
+            recordApplied();
+            return effects().updateRow(rowState().withOk(deliveredAt));
         }
 
-        public Effect<Delivery> onDelivered(PatientRecordDeliveryEvent.PatientRecordDelivered ignore) {
-            return effects().updateRow(rowState().withOk());
+        public Effect<Delivery> onExpunged(PatientRecordDeliveryEvent.PatientRecordDeliveryExpunged ignore) {
+            recordApplied();
+            // only delivered entries are expunged
+            return effects().updateRow(rowState().asExpunged());
         }
 
     }
@@ -4,9 +4,9 @@ import akka.javasdk.annotations.ComponentId;
 import akka.javasdk.annotations.Consume;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.consumer.Consumer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import pharmacy.application.PatientRecordEntity;
+import pharmacy.application.logging.HotPathLogger;
+import pharmacy.domain.PatientRecordEvent;
 import pharmacy.domain.PatientRecordEvent.PatientRecordCreated;
 import pharmacy.domain.PatientRecordEvent.PatientRecordUpdated;
 import pharmacy.domain.PatientRecordEvent.PatientRecordDeleted;
@@ -21,7 +21,7 @@ import pharmacy.domain.PatientRecordEvent.PatientRecordDeleted;
 @Consume.FromEventSourcedEntity(value = PatientRecordEntity.class, ignoreUnknown = true)
 public class RequirePatientRecordDelivery extends Consumer {
 
-    private static final Logger logger = LoggerFactory.getLogger(RequirePatientRecordDelivery.class);
+    private static final HotPathLogger log = HotPathLogger.of(RequirePatientRecordDelivery.class, "delivery");
 
     private final ComponentClient componentClient;
 
@@ -41,6 +41,13 @@ public class RequirePatientRecordDelivery extends Consumer {
         return requireDelivery();
     }
 
+    /**
+     * Field-level change events are delivered once per command, see PatientRecordDeliverer.
+     */
+    public Consumer.Effect onChangeCompleted(PatientRecordEvent.PatientRecordChangeCompleted ignore) {
+        return requireDelivery();
+    }
+
     private String getPatientId() {
         return UpdateIdUtility.getPatientId(messageContext());
     }
@@ -50,7 +57,7 @@ public class RequirePatientRecordDelivery extends Consumer {
     }
 
     private Effect requireDelivery() {
-        logger.info("Requiring delivery for update={} on patientId={}", getUpdateId(), getPatientId());
+        log.info("Requiring delivery", "updateId", getUpdateId(), "patientId", getPatientId());
         componentClient
                 .forEventSourcedEntity(getUpdateId())
                 .method(PatientRecordDeliveryEntity::create)
@@ -8,6 +8,10 @@ public class UpdateIdUtility {
         var cloudEvent = messageContext.metadata().asCloudEvent();
         var seqNum = cloudEvent.sequenceString().get();
         var patientId = messageContext.eventSubject().get();
+        return getUpdateId(patientId, seqNum);
+    }
+
+    public static String getUpdateId(String patientId, String seqNum) {
         return patientId + "_" + seqNum;
     }
 
@@ -0,0 +1,57 @@
+package pharmacy.application.central.lookup;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of central lookup results. Entries expire ttl after they were stored and the least
+ * recently used entry is evicted once maxSize is reached. Empty results are cached too, so repeated
+ * misses don't reach central either.
+ */
+public class CentralLookupCache<V> {
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    public CentralLookupCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    CentralLookupCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > CentralLookupCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(String key) {
+        var entry = entries.get(key);
+        if (entry == null) return Optional.empty();
+        if (clock.getAsLong() - entry.expiresAt() >= 0) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    public synchronized void put(String key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+}
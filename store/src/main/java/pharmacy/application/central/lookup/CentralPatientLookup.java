@@ -0,0 +1,103 @@
+package pharmacy.application.central.lookup;
+
+import akka.javasdk.http.StrictResponse;
+import com.typesafe.config.Config;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pharmacy.application.central.client.CentralClient;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.central.client.domain.StorePatientSearchCriteria;
+import shared.metrics.MetricsRegistry;
+
+/**
+ * Finds patients at other stores through central, for when the local search comes up empty.
+ * <p>
+ * Every call to central has to answer within store.central-lookup.timeout; a slow or unreachable
+ * central is reported as unavailable rather than holding up the pharmacist. Answers are kept in a
+ * {@link CentralLookupCache}, so looking up the same patient again doesn't add load on central.
+ */
+public class CentralPatientLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(CentralPatientLookup.class);
+
+    public enum Source { CACHE, CENTRAL, UNAVAILABLE }
+
+    public record Result(Source source, List<StorePatientRecord> patientRecords) {}
+
+    private final CentralClient centralClient;
+    private final CentralLookupCache<List<StorePatientRecord>> cache;
+    private final Duration timeout;
+
+    public CentralPatientLookup(CentralClient centralClient, Config config) {
+        this.centralClient = centralClient;
+        var lookup = config.getConfig("store.central-lookup");
+        this.timeout = lookup.getDuration("timeout");
+        this.cache = new CentralLookupCache<>(lookup.getInt("cache-size"), lookup.getDuration("cache-ttl"));
+    }
+
+    public Result byHealthNumber(String healthNumber) {
+        var key = "hn:" + healthNumber.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+        return lookup(key, () -> centralClient
+                .lookupByHealthNumber(healthNumber)
+                .thenApply(response -> body(response).records().orElse(List.of())));
+    }
+
+    public Result byName(String firstName, String lastName) {
+        var key = "name:" + normalise(firstName) + "|" + normalise(lastName);
+        return lookup(key, () -> centralClient
+                .search(StorePatientSearchCriteria.byName(firstName, lastName))
+                .thenApply(CentralPatientLookup::body));
+    }
+
+    private interface CentralCall {
+        CompletionStage<List<StorePatientRecord>> call();
+    }
+
+    private Result lookup(String key, CentralCall call) {
+        var cached = cache.get(key);
+        if (cached.isPresent()) {
+            count("cache_hit");
+            return new Result(Source.CACHE, cached.get());
+        }
+        try {
+            var records = call.call()
+                    .toCompletableFuture()
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+            cache.put(key, records);
+            count("central");
+            return new Result(Source.CENTRAL, records);
+        } catch (CompletionException e) {
+            var timedOut = e.getCause() instanceof TimeoutException;
+            count(timedOut ? "timeout" : "error");
+            logger.warn("Central lookup {} after {}", timedOut ? "timed out" : "failed", timeout,
+                    timedOut ? null : e.getCause());
+            return new Result(Source.UNAVAILABLE, List.of());
+        }
+    }
+
+    private static <T> T body(StrictResponse<T> response) {
+        if (!response.status().isSuccess())
+            throw new IllegalStateException("Central answered " + response.status());
+        return response.body();
+    }
+
+    private static String normalise(String value) {
+        return Optional.ofNullable(value).map(v -> v.trim().toLowerCase(Locale.ROOT)).orElse("");
+    }
+
+    private static void count(String result) {
+        MetricsRegistry.global()
+                .counter("central_lookup_total", "Cross-store lookups that went past the local search", "result", result)
+                .increment();
+    }
+
+}
@@ -0,0 +1,223 @@
+package pharmacy.application.central.reconciliation;
+
+import akka.javasdk.client.ComponentClient;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import com.typesafe.config.Config;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pharmacy.application.PatientRecordEntity;
+import pharmacy.application.PatientSearchView;
+import pharmacy.application.central.client.CentralClient;
+import pharmacy.application.central.client.domain.RecordDigest;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.central.restore.PatientRecordRestorer;
+import shared.metrics.MetricsRegistry;
+import pharmacy.domain.PharmacyId;
+
+/**
+ * Anti-entropy between this store and central.
+ * <p>
+ * Both sides digest their records into the same buckets (see {@link RecordDigest}). When the root
+ * digests match nothing else is exchanged. Otherwise the buckets whose digests differ are listed
+ * record by record, all in one request, and only the records that differ are sent again. Central
+ * reads the pharmacy's records once for the digests and once more for the listing, whatever the
+ * drift; what is transferred and resent grows with the drift rather than with the number of patients. This store is the source of truth for
+ * its own pharmacy: records missing or different at central are resent, records central holds that
+ * the store doesn't are deleted there when deleteExtra is set.
+ * <p>
+ * The store's side is read from {@link PatientSearchView}, which may be behind the entities, so a
+ * record is only deleted at central once its {@link PatientRecordEntity} confirms it is gone. Nothing
+ * is deleted when the store lists no records at all, and no run happens while a restore is running,
+ * since central may then hold the only copy of the pharmacy's records.
+ */
+public class PatientRecordReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientRecordReconciler.class);
+
+    public record ReconciliationResult(int bucketsDiffering, int created, int updated, int deleted, int failed) {}
+
+    private final ComponentClient componentClient;
+    private final CentralClient centralClient;
+    private final PatientRecordRestorer restorer;
+    private final Materializer materializer;
+    private final String pharmacyId;
+    private final int buckets;
+    private final boolean deleteExtra;
+
+    public PatientRecordReconciler(
+            ComponentClient componentClient,
+            CentralClient centralClient,
+            PatientRecordRestorer restorer,
+            Materializer materializer,
+            String pharmacyId,
+            int buckets,
+            boolean deleteExtra) {
+        this.componentClient = componentClient;
+        this.centralClient = centralClient;
+        this.restorer = restorer;
+        this.materializer = materializer;
+        this.pharmacyId = pharmacyId;
+        this.buckets = buckets;
+        this.deleteExtra = deleteExtra;
+    }
+
+    public static PatientRecordReconciler create(
+            ComponentClient componentClient,
+            CentralClient centralClient,
+            PatientRecordRestorer restorer,
+            Materializer materializer,
+            PharmacyId pharmacyId,
+            Config config) {
+        var reconciliation = config.getConfig("store.reconciliation");
+        return new PatientRecordReconciler(
+                componentClient,
+                centralClient,
+                restorer,
+                materializer,
+                pharmacyId.id(),
+                reconciliation.getInt("buckets"),
+                reconciliation.getBoolean("delete-extra"));
+    }
+
+    /**
+     * Empty when the run was skipped because a restore is running.
+     */
+    public Optional<ReconciliationResult> reconcile() {
+        if (restorer.status().running()) {
+            logger.info("Skipping reconciliation while a restore is running");
+            return Optional.empty();
+        }
+
+        // digest per patientId, by bucket
+        var local = componentClient
+                .forView()
+                .stream(PatientSearchView::streamAll)
+                .source()
+                .filter(record -> pharmacyId.equals(record.pharmacyId()))
+                .runWith(Sink.fold(new HashMap<Integer, Map<String, Long>>(), (acc, record) -> {
+                    acc.computeIfAbsent(RecordDigest.bucketOf(record.patientId(), buckets), b -> new HashMap<>())
+                            .put(record.patientId(), RecordDigest.of(StorePatientRecord.fromPatientRecord(record)));
+                    return acc;
+                }), materializer)
+                .toCompletableFuture()
+                .join();
+
+        var localBuckets = new long[buckets];
+        local.forEach((bucket, digests) ->
+                digests.values().forEach(digest -> localBuckets[bucket] ^= digest));
+        var localSummary = RecordDigest.summarise(pharmacyId, localBuckets);
+
+        var remoteResponse = centralClient.getDigests(pharmacyId, buckets);
+        if (!remoteResponse.status().isSuccess())
+            throw new RuntimeException("Central digests unavailable: " + remoteResponse.status());
+        var remote = remoteResponse.body();
+        if (localSummary.root().equals(remote.root()) && localSummary.digests().equals(remote.digests())) {
+            logger.info("Reconciliation found no drift across {} buckets", buckets);
+            var result = new ReconciliationResult(0, 0, 0, 0, 0);
+            record(result);
+            return Optional.of(result);
+        }
+
+        var localCount = local.values().stream().mapToInt(Map::size).sum();
+        if (deleteExtra && localCount == 0)
+            logger.warn("The store lists no patient records, not deleting anything at central");
+
+        var differing = new ArrayList<Integer>();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (!localSummary.digests().get(bucket).equals(remote.digests().get(bucket))) differing.add(bucket);
+        }
+        var entriesResponse = centralClient.getEntries(pharmacyId, new RecordDigest.EntriesRequest(buckets, differing));
+        if (!entriesResponse.status().isSuccess())
+            throw new RuntimeException("Central entries unavailable: " + entriesResponse.status());
+        // digest per patientId, by bucket
+        var remoteEntries = new HashMap<Integer, Map<String, String>>();
+        entriesResponse.body().entries().forEach(entry ->
+                remoteEntries.computeIfAbsent(RecordDigest.bucketOf(entry.patientId(), buckets), b -> new HashMap<>())
+                        .put(entry.patientId(), entry.digest()));
+
+        int created = 0, updated = 0, deleted = 0, failed = 0;
+        for (var bucket : differing) {
+            var localDigests = local.getOrDefault(bucket, Map.of());
+            var remoteDigests = remoteEntries.getOrDefault(bucket, Map.of());
+
+            for (var entry : localDigests.entrySet()) {
+                var remoteDigest = remoteDigests.get(entry.getKey());
+                if (RecordDigest.hex(entry.getValue()).equals(remoteDigest)) continue;
+                var outcome = resend(entry.getKey(), remoteDigest != null);
+                switch (outcome) {
+                    case CREATED -> created++;
+                    case UPDATED -> updated++;
+                    case SKIPPED -> { }
+                    case FAILED -> failed++;
+                }
+            }
+
+            if (deleteExtra && localCount > 0) {
+                Set<String> extra = new HashSet<>(remoteDigests.keySet());
+                extra.removeAll(localDigests.keySet());
+                for (var patientId : extra) {
+                    if (existsLocally(patientId)) {
+                        logger.debug("patientId={} is missing from the search view only, not deleting it", patientId);
+                        continue;
+                    }
+                    logger.info("Deleting patientId={} at central, the store no longer has it", patientId);
+                    if (centralClient.delete(pharmacyId, patientId).status().isSuccess()) deleted++;
+                    else failed++;
+                }
+            }
+        }
+
+        var result = new ReconciliationResult(differing.size(), created, updated, deleted, failed);
+        logger.info("Reconciliation repaired drift: {}", result);
+        record(result);
+        return Optional.of(result);
+    }
+
+    private static void record(ReconciliationResult result) {
+        var metrics = MetricsRegistry.global();
+        var help = "Patient records resent to or deleted at central by reconciliation";
+        metrics.counter("reconciliation_records_total", help, "action", "created").add(result.created());
+        metrics.counter("reconciliation_records_total", help, "action", "updated").add(result.updated());
+        metrics.counter("reconciliation_records_total", help, "action", "deleted").add(result.deleted());
+        metrics.counter("reconciliation_records_total", help, "action", "failed").add(result.failed());
+        metrics.gauge("reconciliation_buckets_differing", "Buckets that differed from central in the last run")
+                .set(result.bucketsDiffering());
+    }
+
+    /**
+     * Whether the entity still holds the record; getCurrentRecord is empty once it is deleted.
+     */
+    private boolean existsLocally(String patientId) {
+        return componentClient
+                .forEventSourcedEntity(patientId)
+                .method(PatientRecordEntity::getCurrentRecord)
+                .invoke()
+                .isPresent();
+    }
+
+    private enum Outcome { CREATED, UPDATED, SKIPPED, FAILED }
+
+    /**
+     * Sends the entity's current state rather than the view row, which may be slightly behind.
+     */
+    private Outcome resend(String patientId, boolean existsAtCentral) {
+        var current = componentClient
+                .forEventSourcedEntity(patientId)
+                .method(PatientRecordEntity::getCurrentRecord)
+                .invoke();
+        if (current.isEmpty()) return Outcome.SKIPPED;
+        var record = StorePatientRecord.fromPatientRecord(current.get());
+        logger.info("Resending patientId={} to central", patientId);
+        if (!existsAtCentral && centralClient.create(record).status().isSuccess()) return Outcome.CREATED;
+        // either central has it already, or it arrived since the bucket was listed
+        return centralClient.update(record).status().isSuccess() ? Outcome.UPDATED : Outcome.FAILED;
+    }
+
+}
@@ -0,0 +1,65 @@
+package pharmacy.application.central.reconciliation;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timedaction.TimedAction;
+import akka.javasdk.timer.TimerScheduler;
+import akka.stream.Materializer;
+import com.typesafe.config.Config;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pharmacy.application.central.client.CentralClient;
+import pharmacy.application.central.restore.PatientRecordRestorer;
+import pharmacy.domain.PharmacyId;
+
+/**
+ * Runs {@link PatientRecordReconciler} every store.reconciliation.interval. A failed run, for example
+ * while central is unreachable, is logged and retried at the next interval.
+ */
+@ComponentId("patient-record-reconciliation")
+public class PatientRecordReconciliation extends TimedAction {
+
+    public static final String TIMER_NAME = "patient-record-reconciliation";
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientRecordReconciliation.class);
+
+    private final ComponentClient componentClient;
+    private final PatientRecordReconciler reconciler;
+    private final Duration interval;
+
+    public PatientRecordReconciliation(
+        ComponentClient componentClient,
+        CentralClient centralClient,
+        PatientRecordRestorer restorer,
+        Materializer materializer,
+        PharmacyId pharmacyId,
+        Config config
+    ) {
+        this.componentClient = componentClient;
+        this.reconciler = PatientRecordReconciler.create(
+            componentClient, centralClient, restorer, materializer, pharmacyId, config);
+        this.interval = config.getDuration("store.reconciliation.interval");
+    }
+
+    public Effect reconcile() {
+        try {
+            reconciler.reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Reconciliation with central failed, retrying in {}", interval, e);
+        }
+        schedule(timers(), componentClient, interval);
+        return effects().done();
+    }
+
+    public static void schedule(TimerScheduler timers, ComponentClient componentClient, Duration delay) {
+        timers.createSingleTimer(
+            TIMER_NAME,
+            delay,
+            componentClient
+                .forTimedAction()
+                .method(PatientRecordReconciliation::reconcile)
+                .deferred()
+        );
+    }
+}
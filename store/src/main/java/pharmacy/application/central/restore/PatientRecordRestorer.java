@@ -0,0 +1,134 @@
+package pharmacy.application.central.restore;
+
+import akka.japi.Pair;
+import akka.javasdk.client.ComponentClient;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import com.typesafe.config.Config;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pharmacy.application.PatientRecordEntity;
+import pharmacy.application.central.client.CentralClient;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.application.central.client.domain.StorePatientRecordPage;
+import pharmacy.domain.PharmacyId;
+
+/**
+ * Rebuilds this store's patient records from central, for a store whose data was lost or that is
+ * being re-provisioned.
+ * <p>
+ * Central's records for the pharmacy are read page by page, the next page being fetched while the
+ * current one is written, and restored into {@link PatientRecordEntity} with at most parallelism
+ * writes in flight. Restored records are persisted as PatientRecordRestored, which the delivery
+ * consumers ignore, so nothing is sent back to central. Records the store already holds are kept.
+ * One restore runs at a time.
+ */
+public class PatientRecordRestorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientRecordRestorer.class);
+
+    public record RestoreStatus(boolean running, long restored, long skipped, long failed, Optional<String> error) {}
+
+    private enum Outcome { RESTORED, SKIPPED, FAILED }
+
+    private final ComponentClient componentClient;
+    private final CentralClient centralClient;
+    private final Materializer materializer;
+    private final String pharmacyId;
+    private final int pageSize;
+    private final int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong restored = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<String> error = new AtomicReference<>();
+
+    public PatientRecordRestorer(
+            ComponentClient componentClient,
+            CentralClient centralClient,
+            Materializer materializer,
+            PharmacyId pharmacyId,
+            Config config) {
+        this.componentClient = componentClient;
+        this.centralClient = centralClient;
+        this.materializer = materializer;
+        this.pharmacyId = pharmacyId.id();
+        var restore = config.getConfig("store.restore");
+        this.pageSize = restore.getInt("page-size");
+        this.parallelism = restore.getInt("parallelism");
+    }
+
+    public RestoreStatus status() {
+        return new RestoreStatus(running.get(), restored.get(), skipped.get(), failed.get(),
+                Optional.ofNullable(error.get()));
+    }
+
+    /**
+     * Starts a restore in the background. Returns false if one is already running.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) return false;
+        restored.set(0);
+        skipped.set(0);
+        failed.set(0);
+        error.set(null);
+        var started = System.nanoTime();
+        logger.info("Restoring patient records of pharmacy id={} from central", pharmacyId);
+
+        Source.unfold(Optional.of(""), this::nextPage)
+                .async()
+                .mapConcat(records -> records)
+                .filter(record -> pharmacyId.equals(record.pharmacyId()))
+                .mapAsyncUnordered(parallelism, this::restore)
+                .runWith(Sink.foreach(this::count), materializer)
+                .whenComplete((done, e) -> {
+                    if (e != null) {
+                        logger.error("Restore from central failed", e);
+                        error.set(e.getMessage());
+                    }
+                    logger.info("Restore from central finished in {} ms: {}",
+                            (System.nanoTime() - started) / 1_000_000, status());
+                    running.set(false);
+                });
+        return true;
+    }
+
+    private Optional<Pair<Optional<String>, List<StorePatientRecord>>> nextPage(Optional<String> pageToken) {
+        if (pageToken.isEmpty()) return Optional.empty();
+        var response = centralClient.getPage(pharmacyId, pageToken.get(), pageSize);
+        if (!response.status().isSuccess())
+            throw new RuntimeException("Central sync page unavailable: " + response.status());
+        StorePatientRecordPage page = response.body();
+        var next = page.hasMore() ? Optional.of(page.nextPageToken()) : Optional.<String>empty();
+        return Optional.of(Pair.create(next, page.patientRecords()));
+    }
+
+    private CompletionStage<Outcome> restore(StorePatientRecord record) {
+        return componentClient
+                .forEventSourcedEntity(record.patientId())
+                .method(PatientRecordEntity::restore)
+                .invokeAsync(record.toPatientRecord())
+                .thenApply(restoredRecord -> restoredRecord ? Outcome.RESTORED : Outcome.SKIPPED)
+                .exceptionally(e -> {
+                    logger.warn("Could not restore patientId={}", record.patientId(), e);
+                    return Outcome.FAILED;
+                });
+    }
+
+    private void count(Outcome outcome) {
+        switch (outcome) {
+            case RESTORED -> restored.incrementAndGet();
+            case SKIPPED -> skipped.incrementAndGet();
+            case FAILED -> failed.incrementAndGet();
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package pharmacy.application.logging;
+
+import com.typesafe.config.Config;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Logger for lines written for every patient change or request, where one line per event would
+ * cost noticeable CPU and I/O under load.
+ * <p>
+ * Debug and info lines are sampled per category, see {@link LogSampler}, and checked against the
+ * logger level before anything else is done. Warnings and errors are always written. Lines are
+ * structured: a fixed message plus key/value pairs, passed as alternating names and values, e.g.
+ * {@code log.info("Forwarding to central", "operation", "create", "patientId", id)}. Values under
+ * {@link Phi} keys are redacted and patient records are reduced to their id. The pairs are attached
+ * to the event for structured appenders and also appended to the message as key=value, since a
+ * pattern layout without %kvp would otherwise drop them.
+ * <p>
+ * Sampling is configured under store.logging by {@link #configure(Config)} at startup. Like the
+ * MetricsRegistry it is static, since entities and views can't be handed dependencies.
+ */
+public final class HotPathLogger {
+
+    private static final Map<String, LogSampler> samplers = new ConcurrentHashMap<>();
+    private static volatile Config settings;
+
+    private final Logger logger;
+    private final String category;
+
+    private HotPathLogger(Logger logger, String category) {
+        this.logger = logger;
+        this.category = category;
+    }
+
+    public static HotPathLogger of(Class<?> owner, String category) {
+        return new HotPathLogger(LoggerFactory.getLogger(owner), category);
+    }
+
+    /**
+     * Reads store.logging: default sample-rate and max-per-second, overridden per category under
+     * categories.
+     */
+    public static void configure(Config config) {
+        settings = config;
+        samplers.clear();
+    }
+
+    public void debug(String message, Object... keyValues) {
+        sampled(Level.DEBUG, message, keyValues);
+    }
+
+    public void info(String message, Object... keyValues) {
+        sampled(Level.INFO, message, keyValues);
+    }
+
+    public void warn(String message, Object... keyValues) {
+        if (logger.isWarnEnabled()) write(logger.atWarn(), message, keyValues, 0);
+    }
+
+    private void sampled(Level level, String message, Object[] keyValues) {
+        if (!logger.isEnabledForLevel(level)) return;
+        var suppressed = samplers.computeIfAbsent(category, HotPathLogger::sampler).tryAcquire();
+        if (suppressed < 0) return;
+        write(logger.atLevel(level), message, keyValues, suppressed);
+    }
+
+    private void write(LoggingEventBuilder event, String message, Object[] keyValues, long suppressed) {
+        var line = new StringBuilder(message);
+        event.addKeyValue("category", category);
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            var key = String.valueOf(keyValues[i]);
+            var value = Phi.safe(key, keyValues[i + 1]);
+            event.addKeyValue(key, value);
+            line.append(' ').append(key).append('=').append(value);
+        }
+        if (suppressed > 0) {
+            event.addKeyValue("suppressed", suppressed);
+            line.append(" suppressed=").append(suppressed);
+        }
+        event.setMessage(line.toString()).log();
+    }
+
+    private static LogSampler sampler(String category) {
+        var config = settings;
+        if (config == null) return new LogSampler(1, Integer.MAX_VALUE);
+        var path = "categories." + category;
+        var effective = config.hasPath(path) ? config.getConfig(path).withFallback(config) : config;
+        return new LogSampler(effective.getDouble("sample-rate"), effective.getInt("max-per-second"));
+    }
+}
@@ -0,0 +1,55 @@
+package pharmacy.application.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which lines of one logging category are written. A line passes with probability
+ * sampleRate, and at most maxPerSecond lines pass in any one-second window. Lines that don't pass
+ * are counted, and the count is reported with the next line that does.
+ */
+final class LogSampler {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double sampleRate;
+    private final int maxPerSecond;
+    private final LongSupplier clock;
+    private final AtomicLong windowStart;
+    private final AtomicLong inWindow = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    LogSampler(double sampleRate, int maxPerSecond) {
+        this(sampleRate, maxPerSecond, System::nanoTime);
+    }
+
+    LogSampler(double sampleRate, int maxPerSecond, LongSupplier clock) {
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+        this.clock = clock;
+        this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * -1 when the line should be dropped, otherwise the number of lines dropped since the last
+     * one that passed.
+     */
+    long tryAcquire() {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        var now = clock.getAsLong();
+        var start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            inWindow.set(0);
+        }
+        if (inWindow.incrementAndGet() > maxPerSecond) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,54 @@
+package pharmacy.application.logging;
+
+import java.util.Set;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+import pharmacy.domain.PatientRecord;
+
+/**
+ * Keeps personal health information out of log output. Values logged under a PHI key are masked,
+ * and patient records are reduced to their patient id.
+ */
+public final class Phi {
+
+    private static final Set<String> KEYS = Set.of(
+        "firstName",
+        "lastName",
+        "prefName",
+        "name",
+        "dateOfBirth",
+        "phoneNumber",
+        "provHealthNumber",
+        "healthNumber",
+        "unitNumber",
+        "streetNumber",
+        "streetName",
+        "postalCode",
+        "searchTerm"
+    );
+
+    private Phi() {}
+
+    public static boolean isPhiKey(String key) {
+        return KEYS.contains(key);
+    }
+
+    /**
+     * Masks all but the last two characters, which is enough to tell values apart when
+     * troubleshooting. Values of four characters or fewer are masked completely.
+     */
+    public static String redact(String value) {
+        if (value == null) return null;
+        if (value.length() <= 4) return "***";
+        return "***" + value.substring(value.length() - 2);
+    }
+
+    /**
+     * The loggable form of a value logged under key.
+     */
+    public static Object safe(String key, Object value) {
+        if (value instanceof PatientRecord record) return "PatientRecord[patientId=" + record.patientId() + "]";
+        if (value instanceof StorePatientRecord record) return "StorePatientRecord[patientId=" + record.patientId() + "]";
+        if (isPhiKey(key)) return redact(String.valueOf(value));
+        return value;
+    }
+}
@@ -1,5 +1,8 @@
 package pharmacy.domain;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 public record PatientRecord(
@@ -20,4 +23,95 @@ public record PatientRecord(
     String country,
     String langPref,
     boolean smsOptInPref
-) {}
+) {
+
+    /**
+     * The first rule this record breaks, if any.
+     */
+    public Optional<String> validationError() {
+        if (firstName == null || firstName.trim().isEmpty())
+            return Optional.of("First name cannot be empty.");
+        if (lastName == null || lastName.trim().isEmpty())
+            return Optional.of("Last name cannot be empty.");
+        if (phoneNumber == null || phoneNumber.trim().isEmpty())
+            return Optional.of("Phone number cannot be empty.");
+        return Optional.empty();
+    }
+
+    /**
+     * The field-level events that turn this record into the updated one.
+     * Only groups with at least one changed field produce an event; identical records produce none.
+     */
+    public List<PatientRecordEvent> changesTo(PatientRecord updated) {
+        var events = new ArrayList<PatientRecordEvent>();
+        if (!Objects.equals(firstName, updated.firstName)
+                || !Objects.equals(lastName, updated.lastName)
+                || !Objects.equals(prefName, updated.prefName))
+            events.add(new PatientRecordEvent.PatientNameChanged(
+                    updated.firstName, updated.lastName, updated.prefName));
+        if (!Objects.equals(phoneNumber, updated.phoneNumber)
+                || !Objects.equals(langPref, updated.langPref))
+            events.add(new PatientRecordEvent.PatientContactChanged(updated.phoneNumber, updated.langPref));
+        if (!Objects.equals(dateOfBirth, updated.dateOfBirth)
+                || !Objects.equals(provHealthNumber, updated.provHealthNumber))
+            events.add(new PatientRecordEvent.PatientIdentityChanged(updated.dateOfBirth, updated.provHealthNumber));
+        if (!Objects.equals(unitNumber, updated.unitNumber)
+                || !Objects.equals(streetNumber, updated.streetNumber)
+                || !Objects.equals(streetName, updated.streetName)
+                || !Objects.equals(city, updated.city)
+                || !Objects.equals(province, updated.province)
+                || !Objects.equals(postalCode, updated.postalCode)
+                || !Objects.equals(country, updated.country))
+            events.add(new PatientRecordEvent.PatientAddressChanged(
+                    updated.unitNumber,
+                    updated.streetNumber,
+                    updated.streetName,
+                    updated.city,
+                    updated.province,
+                    updated.postalCode,
+                    updated.country));
+        if (!smsOptInPref && updated.smsOptInPref)
+            events.add(new PatientRecordEvent.PatientOptedInForSms());
+        if (smsOptInPref && !updated.smsOptInPref)
+            events.add(new PatientRecordEvent.PatientOptedOutOfSms());
+        return events;
+    }
+
+    public PatientRecord withName(String firstName, String lastName, Optional<String> prefName) {
+        return new PatientRecord(pharmacyId, patientId, firstName, lastName, prefName, dateOfBirth, phoneNumber,
+                provHealthNumber, unitNumber, streetNumber, streetName, city, province, postalCode, country,
+                langPref, smsOptInPref);
+    }
+
+    public PatientRecord withContact(String phoneNumber, String langPref) {
+        return new PatientRecord(pharmacyId, patientId, firstName, lastName, prefName, dateOfBirth, phoneNumber,
+                provHealthNumber, unitNumber, streetNumber, streetName, city, province, postalCode, country,
+                langPref, smsOptInPref);
+    }
+
+    public PatientRecord withIdentity(String dateOfBirth, String provHealthNumber) {
+        return new PatientRecord(pharmacyId, patientId, firstName, lastName, prefName, dateOfBirth, phoneNumber,
+                provHealthNumber, unitNumber, streetNumber, streetName, city, province, postalCode, country,
+                langPref, smsOptInPref);
+    }
+
+    public PatientRecord withAddress(
+        Optional<String> unitNumber,
+        String streetNumber,
+        String streetName,
+        String city,
+        String province,
+        String postalCode,
+        String country
+    ) {
+        return new PatientRecord(pharmacyId, patientId, firstName, lastName, prefName, dateOfBirth, phoneNumber,
+                provHealthNumber, unitNumber, streetNumber, streetName, city, province, postalCode, country,
+                langPref, smsOptInPref);
+    }
+
+    public PatientRecord withSmsOptInPref(boolean smsOptInPref) {
+        return new PatientRecord(pharmacyId, patientId, firstName, lastName, prefName, dateOfBirth, phoneNumber,
+                provHealthNumber, unitNumber, streetNumber, streetName, city, province, postalCode, country,
+                langPref, smsOptInPref);
+    }
+}
@@ -2,21 +2,92 @@ package pharmacy.domain;
 
 import akka.javasdk.annotations.TypeName;
 
+import java.util.Optional;
+
 public sealed interface PatientRecordEvent {
 
     @TypeName("patient-record-created")
     record PatientRecordCreated(PatientRecord patientRecord) implements PatientRecordEvent {}
 
+    /**
+     * Full-record update. No longer emitted, the field-level change events below are used instead.
+     * Kept so that existing journals can still be replayed.
+     */
     @TypeName("patient-record-updated")
     record PatientRecordUpdated(PatientRecord patientRecord) implements PatientRecordEvent {}
 
+    /**
+     * A record copied back from central while restoring the store. Unlike PatientRecordCreated it is
+     * not delivered to central, which already holds it.
+     */
+    @TypeName("patient-record-restored")
+    record PatientRecordRestored(PatientRecord patientRecord) implements PatientRecordEvent {}
+
     @TypeName("patient-record-deleted")
     record PatientRecordDeleted(String pharmacyId, String patientId) implements PatientRecordEvent {}
 
+    /**
+     * Full-record merge. No longer emitted, see {@link PatientRecordMergedWith}.
+     * Kept so that existing journals can still be replayed.
+     */
     @TypeName("patient-record-merged")
     record PatientRecordMerged(PatientRecord updated, String mergedWithPatientId) implements PatientRecordEvent {}
 
+    @TypeName("patient-record-merged-with")
+    record PatientRecordMergedWith(String mergedWithPatientId) implements PatientRecordEvent {}
+
+    /**
+     * Closes the change events persisted by one update or merge. The delivery consumers send central the
+     * whole record once per command on this event, rather than once per changed field group.
+     */
+    @TypeName("patient-record-change-completed")
+    record PatientRecordChangeCompleted() implements PatientRecordEvent {}
+
     @TypeName("patient-opted-in-for-sms")
     record PatientOptedInForSms() implements PatientRecordEvent {}
 
-}
\ No newline at end of file
+    @TypeName("patient-opted-out-of-sms")
+    record PatientOptedOutOfSms() implements PatientRecordEvent {}
+
+    @TypeName("patient-name-changed")
+    record PatientNameChanged(String firstName, String lastName, Optional<String> prefName)
+            implements PatientRecordEvent {
+
+        public PatientRecord applyTo(PatientRecord record) {
+            return record.withName(firstName, lastName, prefName);
+        }
+    }
+
+    @TypeName("patient-contact-changed")
+    record PatientContactChanged(String phoneNumber, String langPref) implements PatientRecordEvent {
+
+        public PatientRecord applyTo(PatientRecord record) {
+            return record.withContact(phoneNumber, langPref);
+        }
+    }
+
+    @TypeName("patient-identity-changed")
+    record PatientIdentityChanged(String dateOfBirth, String provHealthNumber) implements PatientRecordEvent {
+
+        public PatientRecord applyTo(PatientRecord record) {
+            return record.withIdentity(dateOfBirth, provHealthNumber);
+        }
+    }
+
+    @TypeName("patient-address-changed")
+    record PatientAddressChanged(
+            Optional<String> unitNumber,
+            String streetNumber,
+            String streetName,
+            String city,
+            String province,
+            String postalCode,
+            String country
+    ) implements PatientRecordEvent {
+
+        public PatientRecord applyTo(PatientRecord record) {
+            return record.withAddress(unitNumber, streetNumber, streetName, city, province, postalCode, country);
+        }
+    }
+
+}
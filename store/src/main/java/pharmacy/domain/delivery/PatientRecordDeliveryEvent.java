@@ -2,12 +2,20 @@ package pharmacy.domain.delivery;
 
 import akka.javasdk.annotations.TypeName;
 
+import java.time.Instant;
+
 public sealed interface PatientRecordDeliveryEvent {
 
     @TypeName("patient-record-required")
     record PatientRecordRequired(String patientId) implements PatientRecordDeliveryEvent {}
 
+    /**
+     * deliveredAt is null for events persisted before it was introduced.
+     */
     @TypeName("patient-record-delivered")
-    record PatientRecordDelivered() implements PatientRecordDeliveryEvent {}
+    record PatientRecordDelivered(Instant deliveredAt) implements PatientRecordDeliveryEvent {}
+
+    @TypeName("patient-record-delivery-expunged")
+    record PatientRecordDeliveryExpunged() implements PatientRecordDeliveryEvent {}
 
 }
@@ -0,0 +1,54 @@
+package pharmacy.api;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatientImportParserTest {
+
+    @Test
+    public void testParseCsv() {
+        var csv = """
+            firstName,lastName,phoneNumber,prefName,smsOptInPref,city
+            Alicia,Summers,555-123-4567,,true,"Vancouver, BC"
+            Bob,"O""Brien",555-000-0000,Bobby,false,Victoria
+            Broken,Row
+            """;
+        var rows = PatientImportParser.parseCsv(csv);
+        assertEquals(3, rows.size());
+
+        var first = rows.get(0).request().get();
+        assertEquals("Alicia", first.firstName());
+        assertEquals(Optional.empty(), first.prefName());
+        assertEquals("Vancouver, BC", first.city());
+        assertTrue(first.smsOptInPref());
+
+        var second = rows.get(1).request().get();
+        assertEquals("O\"Brien", second.lastName());
+        assertEquals(Optional.of("Bobby"), second.prefName());
+
+        assertEquals(4, rows.get(2).line());
+        assertTrue(rows.get(2).error().isPresent());
+    }
+
+    @Test
+    public void testParseNdjson() {
+        var ndjson = """
+            {"firstName":"Alicia","lastName":"Summers","phoneNumber":"555-123-4567","smsOptInPref":true}
+
+            not json
+            """;
+        var rows = PatientImportParser.parseNdjson(ndjson);
+        assertEquals(2, rows.size());
+        assertEquals("Alicia", rows.get(0).request().get().firstName());
+        assertEquals(3, rows.get(1).line());
+        assertTrue(rows.get(1).error().isPresent());
+    }
+
+    @Test
+    public void testSplitCsvLine() {
+        assertEquals(List.of("a", "b,c", ""), PatientImportParser.splitCsvLine("a,\"b,c\","));
+    }
+}
@@ -11,6 +11,7 @@ import pharmacy.domain.PatientRecord;
 import pharmacy.domain.PatientRecordEvent;
 import pharmacy.domain.PatientRecordEvent.PatientRecordCreated;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -82,6 +83,40 @@ public class PatientRecordEntityTest {
     }
 
 
+    @Test
+    public void testRestore() {
+        var testKit = EventSourcedTestKit.of(PatientRecordEntity::new);
+        {
+            var result = testKit.method(PatientRecordEntity::restore).invoke(record_with_optin);
+            assertTrue(result.getReply());
+            var restored = result.getNextEventOfType(PatientRecordEvent.PatientRecordRestored.class);
+            assertEquals(record_with_optin, restored.patientRecord());
+            assertEquals(1, result.getAllEvents().size());
+        }
+        {
+            // the store's own copy wins over central's
+            var result = testKit.method(PatientRecordEntity::restore).invoke(record_with_optin);
+            assertFalse(result.getReply());
+            assertEquals(0, result.getAllEvents().size());
+        }
+    }
+
+    @Test
+    public void testCreateIfAbsent() {
+        var testKit = EventSourcedTestKit.of(PatientRecordEntity::new);
+        {
+            var result = testKit.method(PatientRecordEntity::createIfAbsent).invoke(record_with_optin);
+            assertTrue(result.getReply());
+            assertEquals(2, result.getAllEvents().size());
+        }
+        {
+            // a retried import leaves the record as it is
+            var result = testKit.method(PatientRecordEntity::createIfAbsent).invoke(record_with_optin);
+            assertFalse(result.getReply());
+            assertEquals(0, result.getAllEvents().size());
+        }
+    }
+
     @Test
     public void testUpdateEventThatDoesNotExist() {
         var testKit = EventSourcedTestKit.of(PatientRecordEntity::new);
@@ -101,9 +136,41 @@ public class PatientRecordEntityTest {
             assertEquals(1, result.getAllEvents().size());
 
             var result2 = testKit.method(PatientRecordEntity::update).invoke(record2);
-            assertEquals(1, result2.getAllEvents().size());
-            var update = result2.getNextEventOfType(PatientRecordEvent.PatientRecordUpdated.class);
-            assertEquals(record2, update.patientRecord());
+            assertEquals(2, result2.getAllEvents().size());
+            var update = result2.getNextEventOfType(PatientRecordEvent.PatientNameChanged.class);
+            assertEquals(record2.firstName(), update.firstName());
+            // closes the command's changes, central gets one update for it
+            assertNotNull(result2.getNextEventOfType(PatientRecordEvent.PatientRecordChangeCompleted.class));
+            assertEquals(record2, testKit.getState());
+        }
+    }
+
+    @Test
+    public void testUpdateEvent_onlyChangedFields() {
+        var testKit = EventSourcedTestKit.of(PatientRecordEntity::new);
+        {
+            var result = testKit.method(PatientRecordEntity::create).invoke(record);
+            assertEquals(1, result.getAllEvents().size());
+
+            var updated = record.withContact("555-987-6543", record.langPref());
+            var result2 = testKit.method(PatientRecordEntity::update).invoke(updated);
+            assertEquals(2, result2.getAllEvents().size());
+            var change = result2.getNextEventOfType(PatientRecordEvent.PatientContactChanged.class);
+            assertEquals("555-987-6543", change.phoneNumber());
+            assertEquals(updated, testKit.getState());
+        }
+    }
+
+    @Test
+    public void testUpdateEvent_unchanged() {
+        var testKit = EventSourcedTestKit.of(PatientRecordEntity::new);
+        {
+            var result = testKit.method(PatientRecordEntity::create).invoke(record);
+            assertEquals(1, result.getAllEvents().size());
+
+            var result2 = testKit.method(PatientRecordEntity::update).invoke(record);
+            assertEquals(Done.getInstance(), result2.getReply());
+            assertEquals(0, result2.getAllEvents().size());
         }
     }
 
@@ -117,10 +184,9 @@ public class PatientRecordEntityTest {
             var updated = getRecord(record.patientId(), record.firstName(), true);
             var result2 = testKit.method(PatientRecordEntity::update).invoke(updated);
             assertEquals(2, result2.getAllEvents().size());
-            var update = result2.getNextEventOfType(PatientRecordEvent.PatientRecordUpdated.class);
-            assertEquals(updated, update.patientRecord());
             var optIn = result2.getNextEventOfType(PatientRecordEvent.PatientOptedInForSms.class);
             assertNotNull(optIn);
+            assertEquals(updated, testKit.getState());
         }
     }
 
@@ -0,0 +1,38 @@
+package pharmacy.application.central.client;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CentralReachabilityTest {
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+    private final CentralReachability reachability = new CentralReachability(Clock.fixed(now, ZoneOffset.UTC));
+
+    @Test
+    public void testUnknownUntilFirstResponse() {
+        assertEquals(CentralReachability.State.UNKNOWN, reachability.status(3).state());
+        reachability.recordSuccess();
+        assertEquals(CentralReachability.State.REACHABLE, reachability.status(3).state());
+        assertEquals(Optional.of(now), reachability.status(3).lastSuccess());
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        reachability.recordSuccess();
+        reachability.recordFailure();
+        reachability.recordFailure();
+        assertEquals(CentralReachability.State.REACHABLE, reachability.status(3).state());
+
+        reachability.recordFailure();
+        assertEquals(CentralReachability.State.UNREACHABLE, reachability.status(3).state());
+        assertEquals(3, reachability.status(3).consecutiveFailures());
+
+        reachability.recordSuccess();
+        assertEquals(CentralReachability.State.REACHABLE, reachability.status(3).state());
+        assertEquals(0, reachability.status(3).consecutiveFailures());
+    }
+}
@@ -0,0 +1,36 @@
+package pharmacy.application.central.client.domain;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecordDigestTest {
+
+    /**
+     * Central computes the same digest for the same record (central RecordDigestTest checks the same value).
+     */
+    @Test
+    public void testDigestIsStable() {
+        var record = new StorePatientRecord(
+                "101",
+                "001",
+                "Alicia",
+                "Summers",
+                Optional.of("Ally"),
+                "1985-07-14",
+                "555-123-4567",
+                "PHN1234567",
+                Optional.of("5B"),
+                "123",
+                "Main Street",
+                "Vancouver",
+                "BC",
+                "V5K0A1",
+                "Canada",
+                "en",
+                true);
+        assertEquals("1b1ad928973006e7", RecordDigest.hex(RecordDigest.of(record)));
+        assertEquals(49, RecordDigest.bucketOf("001", 256));
+    }
+
+}
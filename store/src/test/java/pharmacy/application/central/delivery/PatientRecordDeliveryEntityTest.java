@@ -0,0 +1,39 @@
+package pharmacy.application.central.delivery;
+
+import akka.javasdk.testkit.EventSourcedTestKit;
+import org.junit.jupiter.api.Test;
+import pharmacy.domain.delivery.PatientRecordDeliveryEvent;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatientRecordDeliveryEntityTest {
+
+    @Test
+    public void testExpungeUndelivered() {
+        var testKit = EventSourcedTestKit.of(PatientRecordDeliveryEntity::new);
+        testKit.method(PatientRecordDeliveryEntity::create).invoke("001");
+
+        var result = testKit.method(PatientRecordDeliveryEntity::expunge).invoke();
+        assertFalse(result.getReply());
+        assertEquals(0, result.getAllEvents().size());
+    }
+
+    @Test
+    public void testExpungeDelivered() {
+        var testKit = EventSourcedTestKit.of(PatientRecordDeliveryEntity::new);
+        testKit.method(PatientRecordDeliveryEntity::create).invoke("001");
+        var delivered = testKit.method(PatientRecordDeliveryEntity::markAsDelivered).invoke();
+        assertNotNull(delivered.getNextEventOfType(PatientRecordDeliveryEvent.PatientRecordDelivered.class).deliveredAt());
+
+        var result = testKit.method(PatientRecordDeliveryEntity::expunge).invoke();
+        assertTrue(result.getReply());
+        assertNotNull(result.getNextEventOfType(PatientRecordDeliveryEvent.PatientRecordDeliveryExpunged.class));
+
+        // a redelivered requirement must not resurrect the entry
+        var again = testKit.method(PatientRecordDeliveryEntity::create).invoke("001");
+        assertEquals(0, again.getAllEvents().size());
+        assertTrue(testKit.method(PatientRecordDeliveryEntity::getState).invoke().getReply().delivered());
+    }
+}
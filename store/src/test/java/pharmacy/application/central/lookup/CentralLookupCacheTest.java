@@ -0,0 +1,37 @@
+package pharmacy.application.central.lookup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CentralLookupCacheTest {
+
+    @Test
+    public void testExpiry() {
+        var now = new AtomicLong();
+        var cache = new CentralLookupCache<String>(10, Duration.ofSeconds(1), now::get);
+        cache.put("hn:9876543210", "Alicia");
+        assertEquals(Optional.of("Alicia"), cache.get("hn:9876543210"));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(Optional.empty(), cache.get("hn:9876543210"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        var cache = new CentralLookupCache<String>(2, Duration.ofMinutes(1), () -> 0L);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertEquals(Optional.of("1"), cache.get("a"));
+        assertEquals(Optional.empty(), cache.get("b"));
+        assertEquals(Optional.of("3"), cache.get("c"));
+    }
+
+}
@@ -0,0 +1,30 @@
+package pharmacy.application.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LogSamplerTest {
+
+    @Test
+    public void testRateLimit() {
+        var now = new AtomicLong();
+        var sampler = new LogSampler(1, 2, now::get);
+        assertEquals(0, sampler.tryAcquire());
+        assertEquals(0, sampler.tryAcquire());
+        assertEquals(-1, sampler.tryAcquire());
+        assertEquals(-1, sampler.tryAcquire());
+
+        // the next window reports what was dropped in the last one
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, sampler.tryAcquire());
+        assertEquals(0, sampler.tryAcquire());
+    }
+
+    @Test
+    public void testSampleRateZeroDropsEverything() {
+        var sampler = new LogSampler(0, 100, () -> 0L);
+        for (int i = 0; i < 10; i++) assertEquals(-1, sampler.tryAcquire());
+    }
+}
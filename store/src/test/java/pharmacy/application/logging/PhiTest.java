@@ -0,0 +1,21 @@
+package pharmacy.application.logging;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import pharmacy.domain.PatientRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PhiTest {
+
+    @Test
+    public void testRedaction() {
+        assertEquals("***10", Phi.safe("provHealthNumber", "9876543210"));
+        assertEquals("***", Phi.safe("firstName", "Ali"));
+        assertEquals("abc-123", Phi.safe("patientId", "abc-123"));
+
+        var record = new PatientRecord("101", "abc-123", "Alicia", "Summers", Optional.empty(), "1985-07-14",
+                "555-123-4567", "PHN1234567", Optional.empty(), "123", "Main Street", "Vancouver", "BC",
+                "V5K0A1", "Canada", "en", true);
+        assertEquals("PatientRecord[patientId=abc-123]", Phi.safe("record", record));
+    }
+}
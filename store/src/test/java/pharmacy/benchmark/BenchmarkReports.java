@@ -0,0 +1,30 @@
+package pharmacy.benchmark;
+
+import akka.javasdk.JsonSupport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes benchmark results to target/benchmarks/{name}.json, where CI can pick them up and compare
+ * them between builds.
+ */
+final class BenchmarkReports {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkReports.class);
+
+    private BenchmarkReports() {}
+
+    static void write(String name, Object report) {
+        var file = Path.of("target", "benchmarks", name + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            JsonSupport.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+            logger.info("{} report written to {}", name, file.toAbsolutePath());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write the " + name + " report", e);
+        }
+    }
+}
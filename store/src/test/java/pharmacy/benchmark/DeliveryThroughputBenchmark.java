@@ -0,0 +1,212 @@
+package pharmacy.benchmark;
+
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pharmacy.api.PatientRecordEndpoint.PatientCreateRequest;
+import pharmacy.domain.PatientRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * How fast a store pushes patient changes to central. Creates and updates go through
+ * PatientRecordEndpoint, are delivered by PatientRecordDeliverer to a {@link StubCentral} and the
+ * time each one takes to arrive is recorded.
+ * <p>
+ * Only runs when asked for, and is tuned with system properties:
+ * <pre>
+ * mvn test -Dtest=DeliveryThroughputBenchmark -Dbenchmark=true \
+ *     -Dbenchmark.records=2000 -Dbenchmark.updates-per-record=2 \
+ *     -Dbenchmark.central-latency-ms=20 -Dbenchmark.central-error-rate=0.05
+ * </pre>
+ * Delivery lag is measured from the moment the write request was sent, so it includes the write.
+ * Drain time is how long the last deliveries took to arrive after the last write completed.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DeliveryThroughputBenchmark extends TestKitSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryThroughputBenchmark.class);
+
+    private static final int RECORDS = Integer.getInteger("benchmark.records", 1000);
+    private static final int UPDATES_PER_RECORD = Integer.getInteger("benchmark.updates-per-record", 1);
+    private static final int WRITERS = Integer.getInteger("benchmark.writers", 16);
+    private static final Duration CENTRAL_LATENCY =
+        Duration.ofMillis(Integer.getInteger("benchmark.central-latency-ms", 5));
+    private static final double CENTRAL_ERROR_RATE =
+        Double.parseDouble(System.getProperty("benchmark.central-error-rate", "0"));
+    private static final Duration DRAIN_TIMEOUT =
+        Duration.ofSeconds(Integer.getInteger("benchmark.drain-timeout-seconds", 600));
+
+    public record Report(
+        int records,
+        int updatesPerRecord,
+        long centralLatencyMillis,
+        double centralErrorRate,
+        long deliveries,
+        long rejectedByCentral,
+        double writesPerSecond,
+        double deliveriesPerSecond,
+        Percentiles deliveryLag,
+        long drainMillis
+    ) {}
+
+    private StubCentral central;
+
+    @Override
+    protected TestKit.Settings testKitSettings() {
+        central = StubCentral.start(CENTRAL_LATENCY, CENTRAL_ERROR_RATE);
+        return TestKit.Settings.DEFAULT.withAdditionalConfig(
+            """
+            store.central-route = "%s"
+            store.reconciliation.enabled = false
+            store.delivery-retention.enabled = false
+            """.formatted(central.url())
+        );
+    }
+
+    @AfterAll
+    public void stopCentral() {
+        central.close();
+    }
+
+    @Test
+    public void deliveryThroughput() throws Exception {
+        // per patient: when the create was sent, then when each update was sent
+        Map<String, List<Long>> sent = new ConcurrentHashMap<>();
+        var expected = (long) RECORDS * (1 + UPDATES_PER_RECORD);
+
+        var start = System.nanoTime();
+        try (var writers = Executors.newFixedThreadPool(WRITERS)) {
+            var writes = new ArrayList<Future<?>>();
+            for (int i = 0; i < RECORDS; i++) {
+                var n = i;
+                writes.add(writers.submit(() -> writePatient(n, sent)));
+            }
+            for (var write : writes) write.get();
+        }
+        var writesDone = System.nanoTime();
+        logger.info("{} writes done in {}ms, waiting for delivery", expected, millis(writesDone - start));
+
+        // central.accepted() counts duplicates too, so completion is judged per patient
+        var deadline = writesDone + DRAIN_TIMEOUT.toNanos();
+        while (undelivered(sent) > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertEquals(0, duplicates(sent), "changes reached central more than once");
+        assertEquals(0, undelivered(sent), "not every change reached central");
+
+        var lags = new ArrayList<Long>();
+        var lastArrival = 0L;
+        for (var entry : sent.entrySet()) {
+            var created = central.arrivals(StubCentral.Kind.CREATE, entry.getKey());
+            var updated = central.arrivals(StubCentral.Kind.UPDATE, entry.getKey());
+            assertEquals(1, created.size());
+            assertEquals(UPDATES_PER_RECORD, updated.size());
+            var arrivals = new ArrayList<>(created);
+            arrivals.addAll(updated);
+            for (int i = 0; i < arrivals.size(); i++) {
+                lags.add(arrivals.get(i) - entry.getValue().get(i));
+                lastArrival = Math.max(lastArrival, arrivals.get(i));
+            }
+        }
+        assertTrue(lastArrival > 0);
+
+        var report = new Report(
+            RECORDS,
+            UPDATES_PER_RECORD,
+            CENTRAL_LATENCY.toMillis(),
+            CENTRAL_ERROR_RATE,
+            central.accepted(),
+            central.rejected(),
+            expected / seconds(writesDone - start),
+            expected / seconds(lastArrival - start),
+            Percentiles.of(lags),
+            Math.max(0, millis(lastArrival - writesDone))
+        );
+        logger.info("Delivery throughput: {}", report);
+        BenchmarkReports.write("delivery-throughput", report);
+    }
+
+    private long undelivered(Map<String, List<Long>> sent) {
+        return sent.entrySet().stream()
+            .mapToLong(e -> Math.max(0, e.getValue().size() - central.received(e.getKey())))
+            .sum();
+    }
+
+    private long duplicates(Map<String, List<Long>> sent) {
+        return sent.entrySet().stream()
+            .mapToLong(e -> Math.max(0, central.received(e.getKey()) - e.getValue().size()))
+            .sum();
+    }
+
+    private void writePatient(int n, Map<String, List<Long>> sent) {
+        var times = new CopyOnWriteArrayList<Long>();
+        var createSent = System.nanoTime();
+        var patientId = httpClient
+            .PUT("/patients/patient")
+            .withRequestBody(createRequest(n))
+            .responseBodyAs(String.class)
+            .invoke()
+            .body();
+        times.add(createSent);
+        sent.put(patientId, times);
+
+        var record = getRecord(patientId);
+        for (int u = 1; u <= UPDATES_PER_RECORD; u++) {
+            record = record.withContact("604-555-" + "%04d".formatted(u), record.langPref());
+            times.add(System.nanoTime());
+            httpClient.PUT("/patients/patient/" + patientId).withRequestBody(record).invoke();
+        }
+    }
+
+    private PatientRecord getRecord(String patientId) {
+        return httpClient
+            .GET("/patients/" + patientId)
+            .responseBodyAs(PatientRecord.class)
+            .invoke()
+            .body();
+    }
+
+    private static PatientCreateRequest createRequest(int n) {
+        return new PatientCreateRequest(
+            "Load" + n,
+            "Patient",
+            Optional.empty(),
+            "1980-01-01",
+            "604-555-0000",
+            "9" + "%09d".formatted(n),
+            Optional.empty(),
+            "100",
+            "Main Street",
+            "Vancouver",
+            "BC",
+            "V5K 0A1",
+            "Canada",
+            "en",
+            false,
+            Optional.empty()
+        );
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
@@ -0,0 +1,264 @@
+package pharmacy.benchmark;
+
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pharmacy.api.PatientRecordEndpoint.PatientCreateRequest;
+import pharmacy.application.central.delivery.PatientRecordDeliverySummary;
+import pharmacy.domain.PatientRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * What happens to delivery when central goes away and comes back, under a steady write load.
+ * The store keeps taking writes while central is down, and the changes queue up as pending
+ * deliveries. This harness measures how large that backlog gets and how long the store needs to
+ * catch up once central returns.
+ * <p>
+ * The store runs in the TestKit, delivering to a {@link StubCentral} that stops listening for the
+ * outage window. Each tick, the writer creates a patient and updates it once, which produces two
+ * deliveries. The run fails if any change is lost or reaches central twice. It also fails if
+ * benchmark.max-recovery-seconds is set and recovery takes longer than that.
+ * <pre>
+ * mvn test -Dtest=OutageRecoveryBenchmark -Dbenchmark=true \
+ *     -Dbenchmark.writes-per-second=50 -Dbenchmark.outage-seconds=60 -Dbenchmark.max-recovery-seconds=30
+ * </pre>
+ * Recovery time is measured from the moment central comes back until the last change written
+ * before that moment has arrived. The report is written to target/benchmarks/outage-recovery.json.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OutageRecoveryBenchmark extends TestKitSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutageRecoveryBenchmark.class);
+
+    private static final int WRITES_PER_SECOND = Integer.getInteger("benchmark.writes-per-second", 20);
+    private static final Duration BEFORE_OUTAGE = seconds("benchmark.before-outage-seconds", 10);
+    private static final Duration OUTAGE = seconds("benchmark.outage-seconds", 30);
+    private static final Duration AFTER_OUTAGE = seconds("benchmark.after-outage-seconds", 30);
+    private static final Duration DRAIN_TIMEOUT = seconds("benchmark.drain-timeout-seconds", 600);
+    private static final Optional<Duration> MAX_RECOVERY =
+        Optional.ofNullable(Integer.getInteger("benchmark.max-recovery-seconds")).map(Duration::ofSeconds);
+
+    /**
+     * @param outstanding pending deliveries according to the store's delivery view
+     * @param undelivered changes written that central has not accepted yet
+     */
+    public record BacklogSample(long atMillis, long outstanding, long undelivered) {}
+
+    public record Report(
+        int writesPerSecond,
+        long outageMillis,
+        long deliveries,
+        long backlogAtRestore,
+        long firstDeliveryAfterRestoreMillis,
+        long recoveryMillis,
+        double drainPerSecond,
+        long duplicates,
+        List<BacklogSample> backlog
+    ) {}
+
+    private record Written(String patientId, List<Long> sent) {}
+
+    private StubCentral central;
+
+    private static Duration seconds(String property, int defaultSeconds) {
+        return Duration.ofSeconds(Integer.getInteger(property, defaultSeconds));
+    }
+
+    @Override
+    protected TestKit.Settings testKitSettings() {
+        central = StubCentral.start(Duration.ZERO, 0);
+        return TestKit.Settings.DEFAULT.withAdditionalConfig(
+            """
+            store.central-route = "%s"
+            store.reconciliation.enabled = false
+            store.delivery-retention.enabled = false
+            """.formatted(central.url())
+        );
+    }
+
+    @AfterAll
+    public void stopCentral() {
+        central.close();
+    }
+
+    @Test
+    public void outageAndRecovery() throws Exception {
+        var written = new CopyOnWriteArrayList<Written>();
+        var samples = new CopyOnWriteArrayList<BacklogSample>();
+        var writing = new AtomicBoolean(true);
+        var start = System.nanoTime();
+
+        long restoredAt;
+        int writtenBeforeRestore;
+        long backlogAtRestore;
+        try (var load = Executors.newVirtualThreadPerTaskExecutor()) {
+            var writer = load.submit(() -> write(written, writing));
+            var sampler = load.submit(() -> sample(start, written, samples));
+
+            TimeUnit.NANOSECONDS.sleep(BEFORE_OUTAGE.toNanos());
+            logger.info("Taking central offline for {}", OUTAGE);
+            central.goOffline();
+            TimeUnit.NANOSECONDS.sleep(OUTAGE.toNanos());
+
+            // nothing is delivered while central is offline, so everything written so far is backlog
+            writtenBeforeRestore = written.size();
+            backlogAtRestore = undelivered(written);
+            restoredAt = System.nanoTime();
+            central.goOnline();
+            logger.info("Central back online with {} changes waiting", backlogAtRestore);
+
+            TimeUnit.NANOSECONDS.sleep(AFTER_OUTAGE.toNanos());
+            writing.set(false);
+            writer.get();
+
+            // central.accepted() counts duplicates too, so completion is judged per patient
+            var deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (undelivered(written) > 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            sampler.cancel(true);
+        }
+
+        var duplicates = 0L;
+        var lastBacklogArrival = restoredAt;
+        var firstArrivalAfterRestore = Long.MAX_VALUE;
+        for (int i = 0; i < written.size(); i++) {
+            var patient = written.get(i);
+            var arrivals = new ArrayList<>(central.arrivals(StubCentral.Kind.CREATE, patient.patientId()));
+            arrivals.addAll(central.arrivals(StubCentral.Kind.UPDATE, patient.patientId()));
+            duplicates += Math.max(0, central.received(patient.patientId()) - patient.sent().size());
+            for (var arrival : arrivals) {
+                if (arrival >= restoredAt) firstArrivalAfterRestore = Math.min(firstArrivalAfterRestore, arrival);
+                if (i < writtenBeforeRestore) lastBacklogArrival = Math.max(lastBacklogArrival, arrival);
+            }
+        }
+        var recoveryMillis = TimeUnit.NANOSECONDS.toMillis(lastBacklogArrival - restoredAt);
+
+        var report = new Report(
+            WRITES_PER_SECOND,
+            OUTAGE.toMillis(),
+            central.accepted(),
+            backlogAtRestore,
+            TimeUnit.NANOSECONDS.toMillis(firstArrivalAfterRestore - restoredAt),
+            recoveryMillis,
+            recoveryMillis == 0 ? 0 : backlogAtRestore * 1000.0 / recoveryMillis,
+            duplicates,
+            List.copyOf(samples)
+        );
+        logger.info(
+            "Outage recovery: backlog={}, recovery={}ms, drain={}/s, duplicates={}",
+            report.backlogAtRestore(),
+            report.recoveryMillis(),
+            "%.1f".formatted(report.drainPerSecond()),
+            report.duplicates()
+        );
+        BenchmarkReports.write("outage-recovery", report);
+
+        assertEquals(0, duplicates, "changes reached central more than once");
+        assertEquals(0, undelivered(written), "not every change reached central");
+        assertTrue(backlogAtRestore > 0, "no backlog built up during the outage");
+        MAX_RECOVERY.ifPresent(max -> assertTrue(
+            recoveryMillis <= max.toMillis(),
+            "recovery took " + recoveryMillis + "ms, more than " + max
+        ));
+    }
+
+    private void write(List<Written> written, AtomicBoolean writing) {
+        var interval = TimeUnit.SECONDS.toNanos(1) / WRITES_PER_SECOND;
+        var due = System.nanoTime();
+        for (int n = 0; writing.get(); n++) {
+            var wait = due - System.nanoTime();
+            if (wait > 0) sleepNanos(wait);
+
+            var createSent = System.nanoTime();
+            var patientId = httpClient
+                .PUT("/patients/patient")
+                .withRequestBody(createRequest(n))
+                .responseBodyAs(String.class)
+                .invoke()
+                .body();
+            var record = httpClient
+                .GET("/patients/" + patientId)
+                .responseBodyAs(PatientRecord.class)
+                .invoke()
+                .body();
+            var updateSent = System.nanoTime();
+            httpClient
+                .PUT("/patients/patient/" + patientId)
+                .withRequestBody(record.withContact("604-555-0001", record.langPref()))
+                .invoke();
+            written.add(new Written(patientId, List.of(createSent, updateSent)));
+            due += interval;
+        }
+    }
+
+    private void sample(long start, List<Written> written, List<BacklogSample> samples) {
+        while (!Thread.currentThread().isInterrupted()) {
+            var summary = httpClient
+                .GET("/patients/delivery/summary")
+                .responseBodyAs(PatientRecordDeliverySummary.class)
+                .invoke()
+                .body();
+            samples.add(new BacklogSample(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                summary.outstanding(),
+                undelivered(written)
+            ));
+            if (!sleepNanos(TimeUnit.SECONDS.toNanos(1))) return;
+        }
+    }
+
+    /**
+     * Changes written that central hasn't received, judged per patient so that duplicates of
+     * one change don't make up for another that is missing.
+     */
+    private long undelivered(List<Written> written) {
+        return written.stream()
+            .mapToLong(w -> Math.max(0, w.sent().size() - central.received(w.patientId())))
+            .sum();
+    }
+
+    private static boolean sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static PatientCreateRequest createRequest(int n) {
+        return new PatientCreateRequest(
+            "Outage" + n,
+            "Patient",
+            Optional.empty(),
+            "1980-01-01",
+            "604-555-0000",
+            "8" + "%09d".formatted(n),
+            Optional.empty(),
+            "100",
+            "Main Street",
+            "Vancouver",
+            "BC",
+            "V5K 0A1",
+            "Canada",
+            "en",
+            false,
+            Optional.empty()
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package pharmacy.benchmark;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Nearest-rank percentiles over a set of recorded durations, in milliseconds.
+ */
+public record Percentiles(int count, double p50, double p90, double p99, double max) {
+
+    public static Percentiles of(Collection<Long> nanos) {
+        var sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) return new Percentiles(0, 0, 0, 0, 0);
+        return new Percentiles(
+            sorted.length,
+            millis(at(sorted, 0.50)),
+            millis(at(sorted, 0.90)),
+            millis(at(sorted, 0.99)),
+            millis(sorted[sorted.length - 1])
+        );
+    }
+
+    private static long at(long[] sorted, double p) {
+        var rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) Duration.ofMillis(1).toNanos();
+    }
+
+    @Override
+    public String toString() {
+        return "n=%d p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms".formatted(count, p50, p90, p99, max);
+    }
+}
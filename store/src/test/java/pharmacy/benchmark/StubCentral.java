@@ -0,0 +1,148 @@
+package pharmacy.benchmark;
+
+import akka.javasdk.JsonSupport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import pharmacy.application.central.client.domain.StorePatientRecord;
+
+/**
+ * Stands in for central's patient record endpoints, so a store can be measured without running
+ * central. Every request is held for the configured latency and then failed with the configured
+ * error rate. Successful creates, updates and deletes are recorded per patient along with the
+ * time they arrived. {@link #goOffline()} stops listening altogether, so the store sees refused
+ * connections as it would during a real outage.
+ */
+public class StubCentral implements AutoCloseable {
+
+    public enum Kind { CREATE, UPDATE, DELETE }
+
+    private final int port;
+    private HttpServer server;
+    private final Map<Kind, Map<String, List<Long>>> arrivals = new ConcurrentHashMap<>();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Duration latency;
+    private final double errorRate;
+
+    private StubCentral(Duration latency, double errorRate) throws IOException {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        for (var kind : Kind.values()) arrivals.put(kind, new ConcurrentHashMap<>());
+        server = listen(0);
+        port = server.getAddress().getPort();
+    }
+
+    private HttpServer listen(int port) throws IOException {
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // latency is simulated by sleeping, which must not limit how many requests are in flight
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/patients", this::handle);
+        server.start();
+        return server;
+    }
+
+    public static StubCentral start(Duration latency, double errorRate) {
+        try {
+            return new StubCentral(latency, errorRate);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not start the stub central", e);
+        }
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    public synchronized void goOffline() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    public synchronized void goOnline() {
+        if (server == null) {
+            try {
+                server = listen(port);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not restart the stub central on port " + port, e);
+            }
+        }
+    }
+
+    /**
+     * Arrival times, from System.nanoTime, of the accepted requests of a kind for one patient,
+     * in the order they arrived.
+     */
+    public List<Long> arrivals(Kind kind, String patientId) {
+        return arrivals.get(kind).getOrDefault(patientId, List.of());
+    }
+
+    /**
+     * Accepted creates and updates for one patient, counting any that arrived more than once.
+     */
+    public int received(String patientId) {
+        return arrivals(Kind.CREATE, patientId).size() + arrivals(Kind.UPDATE, patientId).size();
+    }
+
+    public long accepted() {
+        return accepted.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var body = exchange.getRequestBody().readAllBytes();
+            Thread.sleep(latency);
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                rejected.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            var kind = switch (exchange.getRequestMethod()) {
+                case "PUT" -> Kind.CREATE;
+                case "POST" -> Kind.UPDATE;
+                case "DELETE" -> Kind.DELETE;
+                default -> null;
+            };
+            if (kind == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            var patientId = kind == Kind.DELETE
+                ? patientIdFromPath(exchange.getRequestURI().getPath())
+                : JsonSupport.getObjectMapper().readValue(body, StorePatientRecord.class).patientId();
+            arrivals.get(kind)
+                .computeIfAbsent(patientId, id -> new CopyOnWriteArrayList<>())
+                .add(System.nanoTime());
+            accepted.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // DELETE /patients/{pharmacyId}-{patientId}, pharmacy ids contain no dashes
+    private static String patientIdFromPath(String path) {
+        var id = path.substring(path.lastIndexOf('/') + 1);
+        return id.substring(id.indexOf('-') + 1);
+    }
+
+    @Override
+    public void close() {
+        goOffline();
+    }
+}